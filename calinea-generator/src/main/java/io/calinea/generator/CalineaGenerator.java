@@ -4,11 +4,15 @@ import org.jspecify.annotations.Nullable;
 
 import io.calinea.config.CalineaGeneratorDefault;
 import io.calinea.generator.parser.MinecraftPackParser;
+import io.calinea.generator.writer.BinaryPackWriter;
 import io.calinea.generator.writer.JsonPackWriter;
 import io.calinea.pack.PackInfo;
+import io.calinea.pack.reader.BinaryPackReader;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Calinea Generator - Calinea config generator
@@ -16,19 +20,32 @@ import java.nio.file.Paths;
  * Tool for generating Calinea config files from Minecraft resource packs.
  */
 public class CalineaGenerator {
+
+    private static final String BINARY_FLAG = "--binary";
     
     public static void main(String[] args) {
-        if (args.length == 0) {
+        // Options can be anywhere, the remaining arguments are positional
+        List<String> positional = new ArrayList<>();
+        boolean binary = false;
+        for (String arg : args) {
+            if (arg.equals(BINARY_FLAG)) {
+                binary = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        if (positional.isEmpty()) {
             printUsage();
             return;
         }
         
         try {
-            String resourcePackPath = args[0];
-            String outputPath = args.length > 1 ? args[1] :  CalineaGeneratorDefault.DEFAULT_OUTPUT_DIR;
+            String resourcePackPath = positional.get(0);
+            String outputPath = positional.size() > 1 ? positional.get(1) :  CalineaGeneratorDefault.DEFAULT_OUTPUT_DIR;
             
             printVersion();
-            generateCalineaConfig(resourcePackPath, outputPath);
+            generateCalineaConfig(resourcePackPath, outputPath, binary);
             
         } catch (Exception e) {
             handleError(e);
@@ -40,15 +57,19 @@ public class CalineaGenerator {
      */
     private static void printUsage() {
         System.out.println("\nUsage:");
-        System.out.println("  java -jar calinea-generator.jar <resource-pack-path> [output-path]");
+        System.out.println("  java -jar calinea-generator.jar <resource-pack-path> [output-path] [" + BINARY_FLAG + "]");
         System.out.println("\nDescription:");
         System.out.println("  Analyzes a Minecraft resource pack and generates a JSON file containing");
         System.out.println("  character width mappings for all fonts.");
+        System.out.println("  With " + BINARY_FLAG + " (or an output file ending with " + BinaryPackReader.FILE_EXTENSION + "), a compact binary");
+        System.out.println("  file is generated instead, faster to load.");
         System.out.println("\nExamples:");
         System.out.println("  java -jar calinea-generator.jar ./my-resource-pack ./output");
         System.out.println("  # Creates: ./output/" + CalineaGeneratorDefault.DEFAULT_OUTPUT_FILENAME);
         System.out.println("  java -jar calinea-generator.jar ./my-resource-pack ./output/custom-name.json");
         System.out.println("  # Creates: ./output/custom-name.json");
+        System.out.println("  java -jar calinea-generator.jar ./my-resource-pack ./output " + BINARY_FLAG);
+        System.out.println("  # Creates: ./output/" + CalineaGeneratorDefault.DEFAULT_BINARY_OUTPUT_FILENAME);
     }
     
     /**
@@ -74,18 +95,20 @@ public class CalineaGenerator {
      * If it's a directory, appends the default filename. If it's a file, uses it as-is.
      * 
      * @param outputPath the output path provided by the user
+     * @param binary whether the binary format is requested
      * @return the resolved full path to the output file
      */
-    private static Path resolveOutputPath(String outputPath) {
+    private static Path resolveOutputPath(String outputPath, boolean binary) {
         Path path = Paths.get(outputPath).normalize();
         
-        // If the path ends with .json, treat it as a complete file path
-        if (outputPath.toLowerCase().endsWith(".json")) {
+        // If the path ends with .json or .bin, treat it as a complete file path
+        String lowerCasePath = outputPath.toLowerCase();
+        if (lowerCasePath.endsWith(".json") || lowerCasePath.endsWith(BinaryPackReader.FILE_EXTENSION)) {
             return path;
         }
         
         // Otherwise, treat it as a directory and append the default filename
-        return path.resolve(CalineaGeneratorDefault.DEFAULT_OUTPUT_FILENAME);
+        return path.resolve(binary ? CalineaGeneratorDefault.DEFAULT_BINARY_OUTPUT_FILENAME : CalineaGeneratorDefault.DEFAULT_OUTPUT_FILENAME);
     }
     
     /**
@@ -93,13 +116,14 @@ public class CalineaGenerator {
      * 
      * @param resourcePackPath the path to the Minecraft resource pack
      * @param outputPath the output path (directory or full file path)
+     * @param binary whether to write the binary format
      * @throws Exception if an error occurs during generation
      */
-    private static void generateCalineaConfig(String resourcePackPath, String outputPath) throws Exception {
+    private static void generateCalineaConfig(String resourcePackPath, String outputPath, boolean binary) throws Exception {
         System.out.println("\nAnalyzing resource pack: " + resourcePackPath);
         
         Path resourcePack = Paths.get(resourcePackPath);
-        Path outputFilePath = resolveOutputPath(outputPath);
+        Path outputFilePath = resolveOutputPath(outputPath, binary);
         
         // Parse the resource pack
         PackInfo packInfo = parsePackInfo(resourcePack);
@@ -125,7 +149,7 @@ public class CalineaGenerator {
     }
     
     /**
-     * Writes all calinea config to a JSON file.
+     * Writes all calinea config to a JSON file, or a binary file if the path ends with {@link BinaryPackReader#FILE_EXTENSION}.
      * 
      * @param packInfo the PackInfo to write
      * @param outputFilePath the full path to the output file
@@ -134,6 +158,11 @@ public class CalineaGenerator {
     private static void writePackInfo(PackInfo packInfo, Path outputFilePath) throws Exception {
         System.out.println("\nGenerating calinea config file...");
         
+        if (outputFilePath.toString().toLowerCase().endsWith(BinaryPackReader.FILE_EXTENSION)) {
+            new BinaryPackWriter(packInfo).write(outputFilePath);
+            return;
+        }
+
         JsonPackWriter writer = new JsonPackWriter(packInfo);
         writer.write(outputFilePath);
     }
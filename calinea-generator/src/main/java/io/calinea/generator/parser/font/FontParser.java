@@ -141,6 +141,11 @@ public class FontParser implements IResourceParser<FontsInfo> {
                 parseProvider(provider, fontInfo, context);
             }
         }
+
+        // A font following the SpaceFont encoding does not need to store its ~26k space widths
+        if (fontInfo.compactArithmeticSpaces()) {
+            System.out.println("Font " + fontKey.asString() + " follows the SpaceFont encoding, space widths will be computed");
+        }
         
         return fontInfo;
     }
@@ -6,14 +6,17 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.calinea.generator.writer.JsonNodeHelper;
 import io.calinea.pack.font.FontInfo;
 import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.font.WidthTable;
+import io.calinea.pack.reader.FontsSectionReader;
 import net.kyori.adventure.key.Key;
 
-import java.util.Map;
-
 /**
  * Writes the fonts section containing character width mappings for each font.
+ * Runs of consecutive codepoints with the same width are written as one range key ({@code "a..z"}).
  */
 public class FontsSectionWriter implements ISectionWriter {
+
+    private static final int MIN_RANGE_LENGTH = 3; // shorter runs are smaller as single keys
     
     private final FontsInfo fontsInfo;
     
@@ -58,25 +61,53 @@ public class FontsSectionWriter implements ISectionWriter {
             }
         }
         
+        // SpaceFont widths computed by the reader (only if set)
+        if (font.hasArithmeticSpaces()) {
+            fontNode.put("arithmetic_spaces", true);
+        }
+
         // Character widths (only if not empty)
-        Map<Integer, Double> widths = font.getWidths();
+        WidthTable widths = font.getWidthTable();
         if (!widths.isEmpty()) {
             writeWidths(fontNode, widths);
         }
     }
     
-    private void writeWidths(ObjectNode fontNode, Map<Integer, Double> widths) {
+    private void writeWidths(ObjectNode fontNode, WidthTable widths) {
         ObjectNode widthsNode = fontNode.putObject("widths");
-        
-        for (Map.Entry<Integer, Double> entry : widths.entrySet()) {
-            int codepoint = entry.getKey();
-            double width = entry.getValue();
-            
-            // Use actual character - Jackson will escape non-ASCII as Unicode
-            String key = new String(Character.toChars(codepoint));
-            
-            // Add width value using optimal number representation
+
+        // Current run of consecutive codepoints sharing a width: [runStart, runEnd]
+        int[] run = {-1, -1};
+        double[] runWidth = {Double.NaN};
+
+        widths.forEach((codepoint, width) -> {
+            if (codepoint == run[1] + 1 && width == runWidth[0]) {
+                run[1] = codepoint;
+                return;
+            }
+            writeRun(widthsNode, run[0], run[1], runWidth[0]);
+            run[0] = codepoint;
+            run[1] = codepoint;
+            runWidth[0] = width;
+        });
+        writeRun(widthsNode, run[0], run[1], runWidth[0]);
+    }
+
+    private void writeRun(ObjectNode widthsNode, int first, int last, double width) {
+        if (first < 0) {
+            return; // no run yet
+        }
+
+        if (last - first + 1 >= MIN_RANGE_LENGTH) {
+            // Use actual characters - Jackson will escape non-ASCII as Unicode
+            String key = Character.toString(first) + FontsSectionReader.RANGE_SEPARATOR + Character.toString(last);
             JsonNodeHelper.putNumber(widthsNode, key, width);
+            return;
+        }
+
+        for (int codepoint = first; codepoint <= last; codepoint++) {
+            // Add width value using optimal number representation
+            JsonNodeHelper.putNumber(widthsNode, Character.toString(codepoint), width);
         }
     }
     
@@ -92,7 +123,11 @@ public class FontsSectionWriter implements ISectionWriter {
     }
     
     private void printFontStatistics(FontInfo font) {
-        Map<Integer, Double> widths = font.getWidths();
+        WidthTable widths = font.getWidthTable();
+
+        if (font.hasArithmeticSpaces()) {
+            System.out.println("    Font '" + font.getFontKey() + "': SpaceFont widths computed arithmetically");
+        }
         
         if (font.hasReferences()) {
             String referencesStr = font.getReferences().stream()
@@ -106,8 +141,8 @@ public class FontsSectionWriter implements ISectionWriter {
                 System.out.println("    Font '" + font.getFontKey() + "': references [" + referencesStr + "]");
             }
         } else if (!widths.isEmpty()) {
-            int minCodepoint = widths.keySet().stream().mapToInt(Integer::intValue).min().orElse(0);
-            int maxCodepoint = widths.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            int minCodepoint = widths.minCodepoint();
+            int maxCodepoint = widths.maxCodepoint();
             System.out.println("    Font '" + font.getFontKey() + "': " + widths.size() + 
                              " widths (range: U+" + String.format("%04X", minCodepoint) + 
                              " to U+" + String.format("%04X", maxCodepoint) + ")");
@@ -1,10 +1,14 @@
 package io.calinea.generator;
 
+import io.calinea.generator.writer.BinaryPackWriter;
 import io.calinea.generator.writer.JsonPackWriter;
 import io.calinea.pack.PackInfo;
 import io.calinea.pack.font.FontInfo;
 import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.reader.BinaryPackReader;
 import io.calinea.pack.reader.JsonPackReader;
+import io.calinea.pack.reader.StreamingJsonPackReader;
+import io.calinea.pack.translation.TranslationInfo;
 import io.calinea.pack.translation.TranslationsInfo;
 import net.kyori.adventure.key.Key;
 
@@ -12,7 +16,10 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CalineaGeneratorTest {
@@ -185,6 +192,33 @@ public class CalineaGeneratorTest {
             assertEquals(0, loadedFont.getDirectWidth('C').getWidth());      // Unset character (default)
         }
         
+        @Test
+        void shouldWriteAndReadWidthRanges(@TempDir Path tempDir) throws Exception {
+            Key fontKey = key("range_font");
+            FontInfo font = new FontInfo(fontKey);
+            for (int codepoint = 'A'; codepoint <= 'Z'; codepoint++) {
+                font.setWidth(codepoint, 6);
+            }
+            font.setWidth('a', 5);                  // too short to be a range
+            font.setWidth('b', 5);
+            for (int codepoint = 0x4E00; codepoint <= 0x9FFF; codepoint++) {
+                font.setWidth(codepoint, 16);       // spans several pages
+            }
+            font.setWidth(0x4E10, 0.5);             // breaks the run
+            FontsInfo fontsInfo = new FontsInfo();
+            fontsInfo.addFont(font);
+
+            JsonPackWriter writer = new JsonPackWriter(new PackInfo(fontsInfo, new TranslationsInfo()));
+            Path jsonFile = tempDir.resolve("range-font.json");
+            writer.write(jsonFile);
+
+            assertFileWritten(jsonFile);
+            assertTrue(Files.readString(jsonFile).contains("\"A..Z\""), "Runs should be written as ranges");
+
+            FontInfo loadedFont = new JsonPackReader().read(jsonFile).fontsInfo().getFont(fontKey);
+            assertFontsEqual(font, loadedFont);
+        }
+        
         @Test
         void shouldHandleEmptyFont(@TempDir Path tempDir) throws Exception {
             Key emptyFontKey = key("empty_font");
@@ -207,4 +241,141 @@ public class CalineaGeneratorTest {
             assertFontsEqual(emptyFont, loadedFontsInfo.getFont(emptyFontKey));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class BinarySerializationTests {
+
+        @Test
+        void shouldWriteAndReadFontsAndTranslations(@TempDir Path tempDir) throws Exception {
+            Key fontKey = key("binary_font");
+            FontInfo font = createSampleFont(fontKey);
+            font.setWidth('a', 5.5);                // float page
+            font.setWidth(0x2000, 1.0 / 3);         // double page
+            font.addReference(key("fallback"));
+            FontInfo fallback = new FontInfo(key("fallback"));
+            fallback.setArithmeticSpaces(true);
+            FontsInfo fontsInfo = new FontsInfo(4);
+            fontsInfo.addFont(font);
+            fontsInfo.addFont(fallback);
+
+            TranslationsInfo translationsInfo = new TranslationsInfo();
+            TranslationInfo english = new TranslationInfo("en_us");
+            english.addTranslation("item.test", "Test Item");
+            english.addTranslation("chat.test", "Hello %s, ünïcödé 😀");
+            TranslationInfo french = new TranslationInfo("fr_fr");
+            french.addTranslation("item.test", "Objet de test");
+            translationsInfo.addTranslation(english);
+            translationsInfo.addTranslation(french);
+
+            Path binaryFile = tempDir.resolve("pack" + BinaryPackReader.FILE_EXTENSION);
+            new BinaryPackWriter(new PackInfo(fontsInfo, translationsInfo)).write(binaryFile);
+
+            assertFileWritten(binaryFile);
+            assertTrue(BinaryPackReader.isBinary(binaryFile));
+
+            PackInfo loaded = new BinaryPackReader().read(binaryFile);
+            assertEquals(4, loaded.fontsInfo().getDefaultWidth());
+            assertFontsEqual(font, loaded.fontsInfo().getFont(fontKey));
+            assertEquals(font.getReferences(), loaded.fontsInfo().getFont(fontKey).getReferences());
+            assertTrue(loaded.fontsInfo().getFont(key("fallback")).hasArithmeticSpaces());
+            assertFalse(loaded.fontsInfo().getFont(fontKey).hasArithmeticSpaces());
+
+            assertEquals(2, loaded.translationsInfo().languageCount());
+            assertEquals("Hello %s, ünïcödé 😀", loaded.translationsInfo().getTranslation("en_us", "chat.test"));
+            assertEquals("Objet de test", loaded.translationsInfo().getTranslation("fr_fr", "item.test"));
+        }
+
+        @Test
+        void shouldNotDetectJsonAsBinary(@TempDir Path tempDir) throws Exception {
+            Path jsonFile = tempDir.resolve("pack.json");
+            new JsonPackWriter(new PackInfo(new FontsInfo(), new TranslationsInfo())).write(jsonFile);
+
+            assertFalse(BinaryPackReader.isBinary(jsonFile));
+        }
+
+        @Test
+        void shouldRejectTruncatedFile(@TempDir Path tempDir) throws Exception {
+            FontsInfo fontsInfo = new FontsInfo();
+            fontsInfo.addFont(createSampleFont(key("truncated")));
+            Path binaryFile = tempDir.resolve("pack" + BinaryPackReader.FILE_EXTENSION);
+            new BinaryPackWriter(new PackInfo(fontsInfo, new TranslationsInfo())).write(binaryFile);
+
+            byte[] bytes = Files.readAllBytes(binaryFile);
+            Files.write(binaryFile, Arrays.copyOf(bytes, bytes.length / 2));
+
+            assertThrows(IOException.class, () -> new BinaryPackReader().read(binaryFile));
+        }
+    }
+
+    @Nested
+    class StreamingJsonTests {
+
+        @Test
+        void shouldReadSameAsTreeReader(@TempDir Path tempDir) throws Exception {
+            Key fontKey = key("streamed_font");
+            FontInfo font = createSampleFont(fontKey);
+            for (int codepoint = 'a'; codepoint <= 'z'; codepoint++) {
+                font.setWidth(codepoint, 5);        // written as a range
+            }
+            font.addReference(key("other"));
+            FontInfo other = new FontInfo(key("other"));
+            other.setArithmeticSpaces(true);
+            FontsInfo fontsInfo = new FontsInfo(6);
+            fontsInfo.addFont(font);
+            fontsInfo.addFont(other);
+
+            TranslationsInfo translationsInfo = new TranslationsInfo();
+            TranslationInfo english = new TranslationInfo("en_us");
+            english.addTranslation("item.test", "Test Item");
+            english.addTranslation("chat.test", "Hello %s");
+            translationsInfo.addTranslation(english);
+
+            Path jsonFile = tempDir.resolve("streamed.json");
+            new JsonPackWriter(new PackInfo(fontsInfo, translationsInfo)).write(jsonFile);
+
+            PackInfo tree = new JsonPackReader().read(jsonFile);
+            PackInfo streamed = new StreamingJsonPackReader().read(jsonFile);
+
+            assertEquals(tree.fontsInfo().getDefaultWidth(), streamed.fontsInfo().getDefaultWidth());
+            assertEquals(tree.fontsInfo().getFonts().keySet(), streamed.fontsInfo().getFonts().keySet());
+            assertFontsEqual(tree.fontsInfo().getFont(fontKey), streamed.fontsInfo().getFont(fontKey));
+            assertEquals(font.getReferences(), streamed.fontsInfo().getFont(fontKey).getReferences());
+            assertTrue(streamed.fontsInfo().getFont(key("other")).hasArithmeticSpaces());
+            assertEquals(english.translations(), streamed.translationsInfo().getTranslation("en_us").translations());
+        }
+
+        @Test
+        void shouldReadSectionsInAnyOrder(@TempDir Path tempDir) throws Exception {
+            Path jsonFile = tempDir.resolve("unordered.json");
+            Files.writeString(jsonFile, """
+                {
+                  "translations": [ { "entries": { "item.test": "Test Item" }, "language": "en_us" } ],
+                  "fonts": {
+                    "entries": [ { "widths": { "a..c": 5, "€": 9 }, "unknown": [1, {"a": 2}], "fontKey": "test:late_key" } ],
+                    "default_width": 7
+                  },
+                  "format": "calinea-config",
+                  "version": 2
+                }
+                """);
+
+            PackInfo packInfo = new StreamingJsonPackReader().read(jsonFile);
+
+            assertEquals(7, packInfo.fontsInfo().getDefaultWidth());
+            FontInfo font = packInfo.fontsInfo().getFont(key("late_key"));
+            assertEquals(5, font.getDirectWidth('b').getWidth());
+            assertEquals(9, font.getDirectWidth('€').getWidth());
+            assertEquals("Test Item", packInfo.translationsInfo().getTranslation("en_us", "item.test"));
+        }
+
+        @Test
+        void shouldRejectInvalidHeader(@TempDir Path tempDir) throws Exception {
+            Path jsonFile = tempDir.resolve("invalid.json");
+            Files.writeString(jsonFile, """
+                { "format": "calinea-config", "version": 99, "fonts": { "default_width": 6, "entries": [] } }
+                """);
+
+            assertThrows(IOException.class, () -> new StreamingJsonPackReader().read(jsonFile));
+        }
+    }
+}
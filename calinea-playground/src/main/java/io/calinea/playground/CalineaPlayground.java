@@ -53,6 +53,7 @@ public class CalineaPlayground extends JavaPlugin {
     
     @Override
     public void onDisable() {
+        Calinea.onDisable();
         getLogger().info("Calinea Playground disabled!");
     }
     
@@ -1,7 +1,6 @@
 package io.calinea.playground.Commands;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -241,10 +240,8 @@ public final class CalineaCommand {
 
                     sender.sendMessage("Reloading calinea configuration ...");
 
-                    CompletableFuture.runAsync(() -> {
-                        Calinea.reloadPackInfo();
-                    })
-                    .thenAccept(aVoid -> {
+                    Calinea.reloadPackInfoAsync()
+                    .thenAccept(context -> {
                         sender.sendMessage(Component.text("Calinea configuration reloaded", NamedTextColor.GREEN));
                     })
                     .exceptionally(ex -> {
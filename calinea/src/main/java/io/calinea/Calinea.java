@@ -1,7 +1,14 @@
 package io.calinea;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Entity;
@@ -12,10 +19,16 @@ import io.calinea.layout.Alignment;
 import io.calinea.layout.LayoutBuilder;
 import io.calinea.layout.LayoutContext;
 import io.calinea.logger.CalineaLogger;
+import io.calinea.pack.PackFileWatcher;
 import io.calinea.pack.PackInfo;
-import io.calinea.pack.reader.JsonPackReader;
+import io.calinea.pack.reader.BinaryPackReader;
+import io.calinea.pack.reader.StreamingJsonPackReader;
 import io.calinea.segmentation.SegmentationResult;
+import io.calinea.segmentation.measurer.IComponentMeasurer;
+import io.calinea.segmentation.measurer.TextWidthKey;
+import io.calinea.utils.FrequencyCache;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.JoinConfiguration;
 
 /**
@@ -36,9 +49,11 @@ public class Calinea {
     public static final String NAMESPACE = "calinea";
     public static final String LIBRARY_NAME = "Calinea";
 
-    private static @Nullable PackInfo packInfo;
-    private static @Nullable CalineaConfig config;
-    private static @Nullable LayoutContext defaultLayoutContext;
+    private static volatile @Nullable CalineaConfig config; // read by the reload thread
+    // The published snapshot, replaced as a whole on reload
+    private static final AtomicReference<@Nullable LayoutContext> defaultLayoutContext = new AtomicReference<>();
+    private static @Nullable ExecutorService reloadExecutor;
+    private static @Nullable PackFileWatcher configWatcher;
 
     private Calinea() {
         throw new UnsupportedOperationException("Utility class - do not instantiate");
@@ -55,6 +70,27 @@ public class Calinea {
     public static void onLoad(CalineaConfig config) {
         Calinea.config = config;
         reloadPackInfo();
+
+        stopWatchingConfig();
+        if (config.watchConfigFile()) {
+            watchConfig(config);
+        }
+    }
+
+    /**
+     * Stops the background work of Calinea (config watcher, reload thread).
+     * <p>
+     * This should be called during application/plugin shutdown. The current layout context stays usable.
+     * </p>
+     */
+    public static void onDisable() {
+        stopWatchingConfig();
+        synchronized (Calinea.class) {
+            if (reloadExecutor != null) {
+                reloadExecutor.shutdownNow();
+                reloadExecutor = null;
+            }
+        }
     }
 
     /**
@@ -80,28 +116,151 @@ public class Calinea {
 
     /**
      * Gets the current LayoutContext.
+     * <p>
+     * The context is an immutable snapshot of the pack: a reload publishes a new context instead of modifying this one,
+     * so keep the returned instance for the duration of an operation to get consistent measurements.
+     * </p>
      * 
      * @return the layout context
      */
     public static LayoutContext defaultLayoutContext() {
-        if (defaultLayoutContext == null) {
+        LayoutContext context = defaultLayoutContext.get();
+        if (context == null) {
             throw new IllegalStateException("Tried to access Calinea layout context, but it was not initialized! Are you using Calinea features before calling Calinea#onLoad?");
         }
-        return defaultLayoutContext;
+        return context;
     }
 
+    /**
+     * Reloads the pack info on the calling thread, then publishes the new layout context.
+     * <p>
+     * Prefer {@link #reloadPackInfoAsync()} on a server thread, parsing a large pack can take a while.
+     * </p>
+     */
     public static void reloadPackInfo() {
+        reloadAndPublish(config());
+    }
+
+    /**
+     * Reloads the pack info on the Calinea reload thread.
+     * 
+     * @return a future completed with the new layout context once published
+     * @see #reloadPackInfoAsync(Executor)
+     */
+    public static CompletableFuture<LayoutContext> reloadPackInfoAsync() {
+        return reloadPackInfoAsync(reloadExecutor());
+    }
+
+    /**
+     * Reloads the pack info on the given executor.
+     * <p>
+     * The new pack is read and compiled in the background, then published at once: layouts already running finish
+     * with the previous context, the next ones use the new context. If the reload fails, the future completes
+     * exceptionally and the previous context stays in use.
+     * </p>
+     * <p>
+     * Fonts and languages that did not change are shared with the previous context, see {@link PackInfo#reuseUnchanged(PackInfo)}.
+     * </p>
+     * <p>
+     * The executor may run several reloads at once: a reload that finds a newer context published meanwhile
+     * is done again from it, so the published context is always built from the last one.
+     * </p>
+     * 
+     * @param executor the executor reading and compiling the pack
+     * @return a future completed with the new layout context once published
+     */
+    public static CompletableFuture<LayoutContext> reloadPackInfoAsync(Executor executor) {
+        CalineaConfig currentConfig = config();
+        return CompletableFuture.supplyAsync(() -> {
+            return reloadAndPublish(currentConfig);
+        }, executor);
+    }
 
-        Path calineaConfigPath = config().calineaConfigPath();
+    /**
+     * Reads the pack, creates a context from the published one, then publishes it if no other reload published a context meanwhile.
+     * Otherwise the context is created again from the newly published one, so that concurrent reloads
+     * (a synchronous one, or an executor with several threads) never replace a newer context with an older one.
+     * The pack is only read once: a retry only shares it again with the new previous pack and rebuilds the context.
+     */
+    private static LayoutContext reloadAndPublish(CalineaConfig config) {
+        Path calineaConfigPath = config.calineaConfigPath();
+        PackInfo read = readPackInfo(calineaConfigPath);
+        while (true) {
+            LayoutContext previous = defaultLayoutContext.get();
+            LayoutContext context = createDefaultLayoutContext(config, read, previous);
+            if (defaultLayoutContext.compareAndSet(previous, context)) {
+                return context;
+            }
+        }
+    }
+
+    private static synchronized void watchConfig(CalineaConfig config) {
+        Path calineaConfigPath = config.calineaConfigPath();
+        try {
+            configWatcher = new PackFileWatcher(calineaConfigPath, config.watchDebounceMillis(), () -> {
+                logger().info("Calinea config changed, reloading " + calineaConfigPath.toAbsolutePath());
+                reloadPackInfoAsync().whenComplete((context, failure) -> {
+                    if (failure != null) {
+                        logger().severe("Ignored the invalid calinea config, the previous one is still used", failure);
+                    } else if (config().verboseLogging()) {
+                        logger().info("Calinea config reloaded");
+                    }
+                });
+            });
+        } catch (IOException e) {
+            logger().severe("Failed to watch the calinea config " + calineaConfigPath.toAbsolutePath(), e);
+        }
+    }
+
+    private static synchronized void stopWatchingConfig() {
+        if (configWatcher != null) {
+            configWatcher.close();
+            configWatcher = null;
+        }
+    }
+
+    // Builds a context from a pack read from the config path, not compiled, nor shared with a previous pack yet
+    private static LayoutContext createDefaultLayoutContext(CalineaConfig config, PackInfo read, @Nullable LayoutContext previous) {
+        Path calineaConfigPath = config.calineaConfigPath();
 
         try {
-            packInfo = createPackInfo(calineaConfigPath);
-            defaultLayoutContext = new LayoutContext.Builder(packInfo).build();
+            PackInfo packInfo = compilePackInfo(read, previous != null ? previous.packInfo() : null);
+            LayoutContext context = new LayoutContext.Builder(packInfo)
+                .fixedPointWidths(config.fixedPointWidths())
+                .widthCacheSize(config.widthCacheSize())
+                .translationWidthCacheSize(config.translationWidthCacheSize())
+                .widthMemo(config.widthMemo())
+                .build();
+
+            // Keep the cached widths of the faces that were reused
+            FrequencyCache<TextWidthKey, Double> widthCache = context.widthCache();
+            FrequencyCache<TextWidthKey, Double> previousWidthCache = previous != null ? previous.widthCache() : null;
+            if (widthCache != null && previousWidthCache != null) {
+                widthCache.putAll(previousWidthCache, key -> packInfo.fontsInfo().hasFace(key.face()));
+            }
+            FrequencyCache<TextWidthKey, Long> unitsCache = context.unitsCache();
+            FrequencyCache<TextWidthKey, Long> previousUnitsCache = previous != null ? previous.unitsCache() : null;
+            if (unitsCache != null && previousUnitsCache != null) {
+                unitsCache.putAll(previousUnitsCache, key -> packInfo.fontsInfo().hasFace(key.face()));
+            }
+            return context;
         } catch (Exception e) {
             throw new RuntimeException("Failed to load calinea config from " + calineaConfigPath.toAbsolutePath(), e);
         }
     }
 
+    // A single thread, so that reloads are published in the order they were requested
+    private static synchronized ExecutorService reloadExecutor() {
+        if (reloadExecutor == null) {
+            reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, LIBRARY_NAME + "-Reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return reloadExecutor;
+    }
+
     //#region Static API Methods
 
     /**
@@ -218,6 +377,17 @@ public class Calinea {
         return defaultLayoutContext().componentMeasurer().measure(component);
     }
     
+    /**
+     * Measures the pixel widths of a batch of components, for example the names of a tab list to align.
+     *
+     * @param components the components to measure
+     * @param parallel whether a large batch may be measured in parallel, see {@link IComponentMeasurer#measureAll(List, boolean)}
+     * @return widths in pixels, in the order of the components
+     */
+    public static double[] measureAll(List<? extends ComponentLike> components, boolean parallel) {
+        return defaultLayoutContext().componentMeasurer().measureAll(components, parallel);
+    }
+
     /**
      * Resolves and then measures the pixel width of a component.
      * 
@@ -227,8 +397,9 @@ public class Calinea {
      * @return width in pixels
      */
     public static double resolveAndMeasure(Component component, CommandSender context, Entity scoreboardSubject) {
-        component = resolve(component, context, scoreboardSubject);
-        return measure(component);
+        LayoutContext layoutContext = defaultLayoutContext();
+        component = layoutContext.componentResolver().resolve(component, context, scoreboardSubject);
+        return layoutContext.componentMeasurer().measure(component);
     }
 
     /**
@@ -251,7 +422,8 @@ public class Calinea {
      * @return separator component
      */
     public static Component separator(Component component, double width, boolean repeatToFill) {
-        double componentWidth = measure(component);
+        LayoutContext context = defaultLayoutContext(); // Same snapshot for the measure and the layout
+        double componentWidth = context.componentMeasurer().measure(component);
 
         if (repeatToFill) {
             int repeatCount = (int) Math.floor(width / componentWidth);
@@ -262,6 +434,7 @@ public class Calinea {
         }
 
         return Calinea.layout(component)
+            .layoutContext(context)
             .width(width)
             .align(Alignment.CENTER)
             .fillLines(repeatToFill) // If repeating, fill the line completely
@@ -283,19 +456,49 @@ public class Calinea {
 
     /**
      * Creates PackInfo from the given font info path.
+     * <p>
+     * The file can be a JSON or a binary config, detected from its first bytes.
+     * Languages of a JSON config are loaded on first use if {@link CalineaConfig#lazyTranslations()} is enabled.
+     * Font references are compiled right after reading, so measurements never walk them.
+     * </p>
      * 
-     * @param packInfoPath the path to the pack info JSON file
+     * @param packInfoPath the path to the pack info JSON or binary file
      * @return the created PackInfo
      */
     public static PackInfo createPackInfo(Path packInfoPath) {
-        JsonPackReader packReader = new JsonPackReader();
+        return createPackInfo(packInfoPath, null);
+    }
+
+    /**
+     * Creates PackInfo from the given font info path, sharing what did not change with a previous pack.
+     * 
+     * @param packInfoPath the path to the pack info JSON or binary file
+     * @param previous the pack currently in use, or null
+     * @return the created PackInfo
+     * @see PackInfo#reuseUnchanged(PackInfo)
+     */
+    public static PackInfo createPackInfo(Path packInfoPath, @Nullable PackInfo previous) {
+        return compilePackInfo(readPackInfo(packInfoPath), previous);
+    }
 
+    private static PackInfo readPackInfo(Path packInfoPath) {
         try {
-            return packReader.read(packInfoPath);
+            return BinaryPackReader.isBinary(packInfoPath)
+                ? new BinaryPackReader().read(packInfoPath)
+                : new StreamingJsonPackReader(config != null && config.lazyTranslations()).read(packInfoPath);
         } catch (Exception e) {
             throw new RuntimeException("Failed to load pack info from " + packInfoPath.toAbsolutePath(), e);
         }
     }
 
+    // The read pack itself is left as is by reuseUnchanged, so it can be compiled again against another previous pack
+    private static PackInfo compilePackInfo(PackInfo packInfo, @Nullable PackInfo previous) {
+        if (previous != null) {
+            return packInfo.reuseUnchanged(previous);
+        }
+        packInfo.fontsInfo().compile();
+        return packInfo;
+    }
+
     //#endregion Static API Methods
 }
@@ -2,6 +2,7 @@ package io.calinea.config;
 
 import java.nio.file.Path;
 
+import io.calinea.layout.LayoutContext;
 import io.calinea.logger.CalineaLogger;
 import io.calinea.pack.font.FontsInfo;
 
@@ -13,6 +14,13 @@ public class CalineaConfig {
     private boolean warnOnUnresolvedServerComponents = true;
     private boolean warnOnUnforcedClientComponents = true;
     private boolean verboseLogging = false;
+    private boolean fixedPointWidths = false;
+    private int widthCacheSize = 0;
+    private int translationWidthCacheSize = LayoutContext.Builder.DEFAULT_TRANSLATION_WIDTH_CACHE_SIZE;
+    private boolean widthMemo = false;
+    private boolean lazyTranslations = false;
+    private boolean watchConfigFile = false;
+    private long watchDebounceMillis = 1000;
 
     public Path calineaConfigPath() {
         return calineaConfigPath;
@@ -104,4 +112,95 @@ public class CalineaConfig {
         this.verboseLogging = verboseLogging;
         return this;
     }
+
+    public boolean fixedPointWidths() {
+        return fixedPointWidths;
+    }
+
+    /**
+     * Sets whether the default layout context sums widths as fixed-point units (1/4800 px) instead of doubles.
+     * This makes line widths and alignment exact, see {@link io.calinea.layout.LayoutContext.Builder#fixedPointWidths(boolean)}.
+     */
+    public CalineaConfig fixedPointWidths(boolean fixedPointWidths) {
+        this.fixedPointWidths = fixedPointWidths;
+        return this;
+    }
+
+    public int widthCacheSize() {
+        return widthCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of texts whose width is cached by the default layout context, 0 (default) to disable.
+     * See {@link io.calinea.layout.LayoutContext.Builder#widthCacheSize(int)}.
+     */
+    public CalineaConfig widthCacheSize(int widthCacheSize) {
+        this.widthCacheSize = widthCacheSize;
+        return this;
+    }
+
+    public int translationWidthCacheSize() {
+        return translationWidthCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of translation patterns whose literal width is cached by the default layout context, 0 to disable.
+     * See {@link io.calinea.layout.LayoutContext.Builder#translationWidthCacheSize(int)}.
+     */
+    public CalineaConfig translationWidthCacheSize(int translationWidthCacheSize) {
+        this.translationWidthCacheSize = translationWidthCacheSize;
+        return this;
+    }
+
+    public boolean widthMemo() {
+        return widthMemo;
+    }
+
+    /**
+     * Sets whether the default layout context memoizes the width of reused component trees, false (default) to disable.
+     * See {@link io.calinea.layout.LayoutContext.Builder#widthMemo(boolean)}.
+     */
+    public CalineaConfig widthMemo(boolean widthMemo) {
+        this.widthMemo = widthMemo;
+        return this;
+    }
+
+    public boolean lazyTranslations() {
+        return lazyTranslations;
+    }
+
+    /**
+     * Sets whether languages are loaded on their first use instead of at startup (disabled by default).
+     * The en_us fallback is always loaded. Only applies to JSON configs, binary configs are loaded at once.
+     */
+    public CalineaConfig lazyTranslations(boolean lazyTranslations) {
+        this.lazyTranslations = lazyTranslations;
+        return this;
+    }
+
+    public boolean watchConfigFile() {
+        return watchConfigFile;
+    }
+
+    /**
+     * Sets whether to reload the calinea config automatically when its file changes (disabled by default).
+     * The new file is read in the background and only replaces the current data if it is valid.
+     */
+    public CalineaConfig watchConfigFile(boolean watchConfigFile) {
+        this.watchConfigFile = watchConfigFile;
+        return this;
+    }
+
+    public long watchDebounceMillis() {
+        return watchDebounceMillis;
+    }
+
+    /**
+     * Sets how long the config file must stay unchanged before being reloaded by the watcher, 1000 ms by default.
+     * This avoids reloading a file still being written.
+     */
+    public CalineaConfig watchDebounceMillis(long watchDebounceMillis) {
+        this.watchDebounceMillis = watchDebounceMillis;
+        return this;
+    }
 }
@@ -3,4 +3,5 @@ package io.calinea.config;
 public class CalineaGeneratorDefault {
     public static final String DEFAULT_OUTPUT_DIR = "./calinea-output";
     public static final String DEFAULT_OUTPUT_FILENAME = "calinea-config.json";
+    public static final String DEFAULT_BINARY_OUTPUT_FILENAME = "calinea-config.bin";
 }
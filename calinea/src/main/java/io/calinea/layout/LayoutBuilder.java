@@ -5,6 +5,7 @@ import org.bukkit.entity.Entity;
 import org.jspecify.annotations.Nullable;
 
 import io.calinea.Calinea;
+import io.calinea.pack.font.FixedWidth;
 import io.calinea.segmentation.ComponentLine;
 import io.calinea.segmentation.SegmentationResult;
 import io.calinea.segmentation.splitter.Splitter;
@@ -203,6 +204,7 @@ public class LayoutBuilder {
         SegmentationResult result = splitter.split(componentToLayout, contentWidth);
 
         TextComponent.Builder finalComponent = Component.text();
+        long contentUnits = ctx.fixedPointWidths() ? FixedWidth.toUnits(contentWidth) : 0;
         boolean first = true;
 
         // Process each line to apply alignment and padding
@@ -212,6 +214,11 @@ public class LayoutBuilder {
             }
             first = false;
 
+            if (ctx.fixedPointWidths()) {
+                appendFixedPointLine(finalComponent, line, contentUnits);
+                continue;
+            }
+
             // Calculate alignment spacing
             double alignmentSpacing = 0;
             switch (alignment) {
@@ -247,4 +254,31 @@ public class LayoutBuilder {
 
         return finalComponent.build();
     }
+
+    // Same as the double path of build(), but computed in FixedWidth units from the line units, so the spaces exactly match the measured width.
+    // When centering leaves an odd number of units, the left spacing is rounded down (like SpaceFont.space in double mode)
+    // and the extra unit goes to the right: the line sits 1/9600 px left of center, and a filled line keeps its exact width.
+    private void appendFixedPointLine(TextComponent.Builder finalComponent, ComponentLine line, long contentUnits) {
+        long lineUnits = line.units();
+
+        long alignmentUnits = switch (alignment) {
+            case LEFT -> 0;
+            case CENTER -> Math.floorDiv(contentUnits - lineUnits, 2);
+            case RIGHT -> contentUnits - lineUnits;
+        };
+
+        long totalLeftUnits = FixedWidth.toUnits(paddingLeft) + alignmentUnits;
+        if (totalLeftUnits != 0) {
+            finalComponent.append(Component.text(SpaceFont.spaceUnits(totalLeftUnits)));
+        }
+
+        finalComponent.append(line);
+
+        if (fillLines) {
+            long totalRightUnits = contentUnits - alignmentUnits - lineUnits + FixedWidth.toUnits(paddingRight);
+            if (totalRightUnits > 0) {
+                finalComponent.append(Component.text(SpaceFont.spaceUnits(totalRightUnits)));
+            }
+        }
+    }
 }
@@ -1,13 +1,26 @@
 package io.calinea.layout;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
 import io.calinea.pack.PackInfo;
+import io.calinea.pack.font.FixedWidth;
 import io.calinea.resolver.ComponentResolver;
 import io.calinea.resolver.IComponentResolver;
+import io.calinea.resolver.Client.ForcedClientComponentResolver;
+import io.calinea.resolver.Client.IClientComponentResolver;
+import io.calinea.segmentation.handlers.IComponentLayoutHandler;
 import io.calinea.segmentation.measurer.ComponentMeasurer;
 import io.calinea.segmentation.measurer.ComponentMeasurerConfig;
+import io.calinea.segmentation.measurer.ComponentWidthMemo;
 import io.calinea.segmentation.measurer.IComponentMeasurer;
+import io.calinea.segmentation.measurer.TextWidthKey;
+import io.calinea.segmentation.measurer.TranslationWidthKey;
 import io.calinea.segmentation.splitter.TextTokenizer;
 import io.calinea.segmentation.splitter.Splitter;
+import io.calinea.utils.FrequencyCache;
 
 /**
  * Holds the context and services required for performing layout operations.
@@ -26,6 +39,9 @@ public class LayoutContext {
     private final IComponentResolver componentResolver;
     private final IComponentMeasurer componentMeasurer;
     private final Splitter splitter;
+    private final boolean fixedPointWidths;
+    private final @Nullable FrequencyCache<TextWidthKey, Double> widthCache;
+    private final @Nullable FrequencyCache<TextWidthKey, Long> unitsCache;
 
     /**
      * Creates a new LayoutContext.
@@ -35,11 +51,41 @@ public class LayoutContext {
      * @param componentResolver the resolver for translating components
      */
     public LayoutContext(PackInfo packInfo, TextTokenizer textTokenizer, IComponentResolver componentResolver, IComponentMeasurer componentMeasurer) {
+        this(packInfo, textTokenizer, componentResolver, componentMeasurer, false, null);
+    }
+
+    /**
+     * Creates a new LayoutContext.
+     *
+     * @param packInfo          the resource pack information
+     * @param textTokenizer     the tokenizer for splitting text
+     * @param componentResolver the resolver for translating components
+     * @param fixedPointWidths  whether widths are accumulated as {@link FixedWidth} units
+     * @param widthCache        the text width cache used by the measurer, if any (exposed for its statistics)
+     */
+    public LayoutContext(PackInfo packInfo, TextTokenizer textTokenizer, IComponentResolver componentResolver, IComponentMeasurer componentMeasurer, boolean fixedPointWidths, @Nullable FrequencyCache<TextWidthKey, Double> widthCache) {
+        this(packInfo, textTokenizer, componentResolver, componentMeasurer, fixedPointWidths, widthCache, null);
+    }
+
+    /**
+     * Creates a new LayoutContext.
+     *
+     * @param packInfo          the resource pack information
+     * @param textTokenizer     the tokenizer for splitting text
+     * @param componentResolver the resolver for translating components
+     * @param fixedPointWidths  whether widths are accumulated as {@link FixedWidth} units
+     * @param widthCache        the text width cache used by the measurer in double mode, if any (exposed for its statistics)
+     * @param unitsCache        the text width cache used by the measurer in fixed-point mode, if any (exposed for its statistics)
+     */
+    public LayoutContext(PackInfo packInfo, TextTokenizer textTokenizer, IComponentResolver componentResolver, IComponentMeasurer componentMeasurer, boolean fixedPointWidths, @Nullable FrequencyCache<TextWidthKey, Double> widthCache, @Nullable FrequencyCache<TextWidthKey, Long> unitsCache) {
         this.packInfo = packInfo;
         this.textTokenizer = textTokenizer;
         this.componentResolver = componentResolver;
         this.componentMeasurer = componentMeasurer;
-        this.splitter = new Splitter(textTokenizer, componentMeasurer);
+        this.fixedPointWidths = fixedPointWidths;
+        this.widthCache = widthCache;
+        this.unitsCache = unitsCache;
+        this.splitter = new Splitter(textTokenizer, componentMeasurer, fixedPointWidths);
     }
 
     /**
@@ -87,14 +133,59 @@ public class LayoutContext {
         return splitter;
     }
 
+    /**
+     * Gets whether widths are accumulated as {@link FixedWidth} units.
+     *
+     * @return true in fixed-point mode
+     */
+    public boolean fixedPointWidths() {
+        return fixedPointWidths;
+    }
+
+    /**
+     * Gets the text width cache of the default measurer, to read its hit/miss statistics.
+     *
+     * @return the cache, or null if disabled, in fixed-point mode or if a custom measurer is used
+     */
+    public @Nullable FrequencyCache<TextWidthKey, Double> widthCache() {
+        return widthCache;
+    }
+
+    /**
+     * Gets the text width cache of the default measurer in fixed-point mode, in {@link FixedWidth} units.
+     *
+     * @return the cache, or null if disabled, in double mode or if a custom measurer is used
+     */
+    public @Nullable FrequencyCache<TextWidthKey, Long> unitsCache() {
+        return unitsCache;
+    }
+
+    /**
+     * Gets the memo of the tree widths of the default measurer, to read its hit/miss statistics.
+     *
+     * @return the memo, or null if disabled or if a custom measurer is used
+     */
+    public @Nullable ComponentWidthMemo widthMemo() {
+        return componentMeasurer instanceof ComponentMeasurer measurer ? measurer.widthMemo() : null;
+    }
+
     /**
      * Builder for creating {@link LayoutContext} instances.
      */
     public static class Builder {
+        public static final int DEFAULT_TRANSLATION_WIDTH_CACHE_SIZE = 1024;
+        private static final int ENGLISH_PATTERN_CACHE_SIZE = 4096; // one per context, so that it is replaced on reload
+
         private final PackInfo packInfo;
         private TextTokenizer textTokenizer;
-        private IComponentResolver componentResolver;
-        private IComponentMeasurer componentMeasurer;
+        private @Nullable IComponentResolver componentResolver;
+        private final List<IClientComponentResolver<?>> clientResolvers = new ArrayList<>();
+        private final List<IComponentLayoutHandler<?>> layoutHandlers = new ArrayList<>();
+        private @Nullable IComponentMeasurer componentMeasurer;
+        private boolean fixedPointWidths;
+        private int widthCacheSize;
+        private int translationWidthCacheSize = DEFAULT_TRANSLATION_WIDTH_CACHE_SIZE;
+        private boolean widthMemo;
 
         /**
          * Creates a new builder with the required pack info.
@@ -104,8 +195,6 @@ public class LayoutContext {
         public Builder(PackInfo packInfo) {
             this.packInfo = packInfo;
             this.textTokenizer = new TextTokenizer.Default();
-            this.componentResolver = new ComponentResolver(packInfo);
-            this.componentMeasurer = new ComponentMeasurer(new ComponentMeasurerConfig(packInfo));
         }
 
         /**
@@ -130,6 +219,22 @@ public class LayoutContext {
             return this;
         }
 
+        /**
+         * Registers a client resolver, to force the resolution of another client-side component type
+         * (or to replace the default resolution of a type).
+         * <p>
+         * Registered resolvers run before the default ones, in registration order: a resolver that turns a component
+         * into a text component takes precedence over the defaults. Ignored if a custom component resolver is set.
+         * </p>
+         *
+         * @param clientResolver the client resolver to add, it must be thread-safe
+         * @return this builder
+         */
+        public Builder clientResolver(IClientComponentResolver<?> clientResolver) {
+            this.clientResolvers.add(clientResolver);
+            return this;
+        }
+
         /**
          * Sets a custom component measurer.
          *
@@ -141,13 +246,127 @@ public class LayoutContext {
             return this;
         }
 
+        /**
+         * Registers a layout handler, to measure and split another component type (or to replace the default handling of a type).
+         * <p>
+         * Registered handlers are tried before the default ones, in registration order.
+         * The handler of a component is cached by component class, so {@link IComponentLayoutHandler#canHandle(net.kyori.adventure.text.Component)}
+         * must only depend on the class. Ignored if a custom measurer is set.
+         * </p>
+         *
+         * @param layoutHandler the handler to add, it must be thread-safe
+         * @return this builder
+         */
+        public Builder layoutHandler(IComponentLayoutHandler<?> layoutHandler) {
+            this.layoutHandlers.add(layoutHandler);
+            return this;
+        }
+
+        /**
+         * Sets whether widths are summed as {@link FixedWidth} units (1/4800 px) instead of doubles.
+         * <p>
+         * Line widths are then exact, and the alignment spacing matches the measured width without rounding.
+         * Default is false.
+         * </p>
+         *
+         * @param fixedPointWidths true to enable fixed-point widths
+         * @return this builder
+         */
+        public Builder fixedPointWidths(boolean fixedPointWidths) {
+            this.fixedPointWidths = fixedPointWidths;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of texts whose width is cached by the default measurer.
+         * <p>
+         * The cache is keyed by font, bold flag and text, and evicts the least frequently measured texts first.
+         * Useful when the same strings (names, prefixes, amounts...) are measured over and over.
+         * In fixed-point mode, the widths are cached in {@link FixedWidth} units (see {@link LayoutContext#unitsCache()}).
+         * Default is 0 (disabled). Ignored if a custom measurer is set.
+         * </p>
+         *
+         * @param widthCacheSize the maximum number of cached texts, 0 to disable
+         * @return this builder
+         */
+        public Builder widthCacheSize(int widthCacheSize) {
+            if (widthCacheSize < 0) {
+                throw new IllegalArgumentException("Width cache size cannot be negative: " + widthCacheSize);
+            }
+            this.widthCacheSize = widthCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of translation patterns whose literal width is cached by the default measurer.
+         * <p>
+         * Measuring an unforced translatable component then only measures its arguments.
+         * The cache belongs to the built context, so it is dropped with it when the pack is reloaded.
+         * Default is {@value #DEFAULT_TRANSLATION_WIDTH_CACHE_SIZE}. Ignored if a custom measurer is set.
+         * </p>
+         *
+         * @param translationWidthCacheSize the maximum number of cached patterns, 0 to disable
+         * @return this builder
+         */
+        public Builder translationWidthCacheSize(int translationWidthCacheSize) {
+            if (translationWidthCacheSize < 0) {
+                throw new IllegalArgumentException("Translation width cache size cannot be negative: " + translationWidthCacheSize);
+            }
+            this.translationWidthCacheSize = translationWidthCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets whether the default measurer memoizes the width of the trees it measures, by component identity.
+         * <p>
+         * A tree reused as is (a constant header, separator or prefix) is then no longer walked once it was measured twice,
+         * even as part of a larger tree. The memo holds its components weakly, and belongs to the built context,
+         * so it is dropped with it when the pack is reloaded. The layout handlers must be deterministic.
+         * Default is false. Ignored if a custom measurer is set.
+         * </p>
+         *
+         * @param widthMemo true to enable the memo
+         * @return this builder
+         */
+        public Builder widthMemo(boolean widthMemo) {
+            this.widthMemo = widthMemo;
+            return this;
+        }
+
         /**
          * Builds the LayoutContext.
          *
          * @return the new context
          */
         public LayoutContext build() {
-            return new LayoutContext(packInfo, textTokenizer, componentResolver, componentMeasurer);
+            IComponentMeasurer measurer = componentMeasurer;
+            FrequencyCache<TextWidthKey, Double> widthCache = null;
+            FrequencyCache<TextWidthKey, Long> unitsCache = null;
+            if (measurer == null) {
+                // The caches hold the widths of the mode of the measurer: doubles, or units in fixed-point mode
+                boolean cacheWidths = widthCacheSize > 0;
+                boolean cacheTranslationWidths = translationWidthCacheSize > 0;
+                widthCache = cacheWidths && !fixedPointWidths ? new FrequencyCache<>(widthCacheSize) : null;
+                unitsCache = cacheWidths && fixedPointWidths ? new FrequencyCache<>(widthCacheSize) : null;
+                ComponentWidthMemo memo = widthMemo ? new ComponentWidthMemo() : null;
+                ComponentMeasurerConfig measurerConfig = new ComponentMeasurerConfig.Builder(packInfo)
+                    .fixedPointWidths(fixedPointWidths)
+                    .widthCache(widthCache)
+                    .unitsCache(unitsCache)
+                    .translationWidthCache(cacheTranslationWidths && !fixedPointWidths ? new FrequencyCache<>(translationWidthCacheSize) : null)
+                    .translationUnitsCache(cacheTranslationWidths && fixedPointWidths ? new FrequencyCache<>(translationWidthCacheSize) : null)
+                    .widthMemo(memo)
+                    .englishPatternCache(new FrequencyCache<>(ENGLISH_PATTERN_CACHE_SIZE))
+                    .build();
+                measurer = new ComponentMeasurer(measurerConfig, layoutHandlers);
+            }
+            IComponentResolver resolver = componentResolver;
+            if (resolver == null) {
+                List<IClientComponentResolver<?>> allClientResolvers = new ArrayList<>(clientResolvers);
+                allClientResolvers.addAll(ForcedClientComponentResolver.defaultClientResolvers(packInfo));
+                resolver = new ComponentResolver(new ForcedClientComponentResolver(allClientResolvers));
+            }
+            return new LayoutContext(packInfo, textTokenizer, resolver, measurer, fixedPointWidths, widthCache, unitsCache);
         }
     }
 }
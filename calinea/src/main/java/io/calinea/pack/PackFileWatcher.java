@@ -0,0 +1,153 @@
+package io.calinea.pack;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import io.calinea.Calinea;
+
+/**
+ * Watches a pack file and runs a callback once it stopped changing.
+ * <p>
+ * A file is usually written in several steps (or copied over by a build pipeline), each one firing an event.
+ * The callback only runs once no event was received for the debounce delay, on the watcher thread:
+ * it should hand the actual work to another thread, see {@link Calinea#reloadPackInfoAsync()}.
+ * </p>
+ * <p>
+ * The parent directory is watched, so the file can be replaced by a move or created after the watcher.
+ * If the directory is deleted or replaced, it is watched again if it exists, else the watcher stops.
+ * </p>
+ */
+public class PackFileWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final Path fileName;
+    private final Path directory;
+    private final long debounceMillis;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private volatile boolean watching = true;
+
+    /**
+     * Creates and starts a watcher.
+     *
+     * @param file the file to watch
+     * @param debounceMillis the delay without change before running the callback
+     * @param onChange the callback, run on the watcher thread
+     * @throws IOException if the parent directory cannot be watched
+     */
+    public PackFileWatcher(Path file, long debounceMillis, Runnable onChange) throws IOException {
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        Path fileName = absoluteFile.getFileName();
+        Path directory = absoluteFile.getParent();
+        if (fileName == null || directory == null) {
+            throw new IOException("Cannot watch " + file + ": no parent directory");
+        }
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("Debounce delay must not be negative: " + debounceMillis);
+        }
+
+        this.file = absoluteFile;
+        this.fileName = fileName;
+        this.directory = directory;
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            register();
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        Thread thread = new Thread(this::run, Calinea.LIBRARY_NAME + "-Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Checks if the watcher is still running: false once closed, or once its directory could not be watched again.
+     */
+    public boolean isWatching() {
+        return watching;
+    }
+
+    /**
+     * Stops watching. A pending change is dropped.
+     */
+    @Override
+    public void close() {
+        watching = false;
+        try {
+            watchService.close(); // wakes the watcher thread up
+        } catch (IOException e) {
+            Calinea.logger().warning("Failed to close the watcher of " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!isFileChanged(watchService.take())) {
+                    continue;
+                }
+
+                // Wait until the file stopped changing for the whole delay
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (key != null && isFileChanged(key)) {
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+                    }
+                }
+
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    Calinea.logger().severe("Failed to handle the change of " + file, e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed, stop watching
+        } finally {
+            watching = false;
+        }
+    }
+
+    private void register() throws IOException {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private boolean isFileChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // Events were lost on overflow, the file may be one of them
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        if (!key.reset()) {
+            // The key of a deleted or replaced directory gets no more events
+            try {
+                register();
+                Calinea.logger().warning("The directory of " + file + " was replaced, watching it again");
+                changed = true; // the file may have been replaced with it
+            } catch (IOException e) {
+                Calinea.logger().warning("Stopped watching " + file + ": its directory is no longer accessible (" + e.getMessage() + ")");
+                close(); // ends the watcher thread on its next wait
+            }
+        }
+        return changed;
+    }
+}
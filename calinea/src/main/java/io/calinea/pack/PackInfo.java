@@ -1,16 +1,30 @@
 package io.calinea.pack;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import io.calinea.Calinea;
+import io.calinea.pack.font.FontInfo;
 import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.translation.TranslationInfo;
 import io.calinea.pack.translation.TranslationsInfo;
+import net.kyori.adventure.key.Key;
 
 /**
  * Contains all parsed data from a Calinea config file.
  */
 public class PackInfo {
-    
+
     private final FontsInfo fonts;
     private final TranslationsInfo translations;
 
+    // Content hashes of the fonts and languages, computed on the first reload that compares this pack
+    private volatile @Nullable ContentHashes contentHashes;
+
     public PackInfo(
             FontsInfo fonts,
             TranslationsInfo translations) {
@@ -21,8 +35,88 @@ public class PackInfo {
     public FontsInfo fontsInfo() {
         return fonts;
     }
-    
+
     public TranslationsInfo translationsInfo() {
         return translations;
     }
+
+    /**
+     * Creates a compiled pack with the content of this one, where the fonts and languages that did not change
+     * since the previous pack are the previous instances.
+     * <p>
+     * Fonts and languages are compared by {@link FontInfo#contentHash() content hash}. Reusing the previous instances
+     * lets {@link FontsInfo#compile(FontsInfo)} keep the resolved fonts and faces whose reference chain did not change,
+     * and lets caches keep their entries for them. Both packs must not be modified afterwards.
+     * </p>
+     * <p>
+     * Lazy languages are not loaded for the comparison: they stay lazy in the new pack.
+     * </p>
+     *
+     * @param previous the pack currently in use
+     * @return a new compiled pack, equal in content to this one
+     */
+    public PackInfo reuseUnchanged(PackInfo previous) {
+        ContentHashes previousHashes = previous.contentHashes();
+        ContentHashes hashes = new ContentHashes();
+
+        List<FontInfo> fontInfos = new ArrayList<>();
+        int reusedFonts = 0;
+        for (FontInfo font : fonts.getFonts().values()) {
+            long hash = font.contentHash();
+            hashes.fonts.put(font.getFontKey(), hash);
+
+            FontInfo previousFont = previous.fonts.getFont(font.getFontKey());
+            Long previousHash = previousHashes.fonts.get(font.getFontKey());
+            if (previousFont != null && previousHash != null && previousHash == hash) {
+                font = previousFont;
+                reusedFonts++;
+            }
+            fontInfos.add(font);
+        }
+
+        int[] reusedLanguages = new int[1];
+        TranslationsInfo mergedTranslations = translations.mapLoaded(language -> {
+            long hash = language.contentHash();
+            hashes.languages.put(language.language(), hash);
+
+            Long previousHash = previousHashes.languages.get(language.language());
+            if (previousHash != null && previousHash == hash && previous.translations.isLoaded(language.language())) {
+                reusedLanguages[0]++;
+                return previous.translations.getTranslation(language.language());
+            }
+            return language;
+        });
+
+        FontsInfo mergedFonts = new FontsInfo(fontInfos, fonts.getDefaultWidth());
+        mergedFonts.compile(previous.fonts);
+
+        PackInfo merged = new PackInfo(mergedFonts, mergedTranslations);
+        merged.contentHashes = hashes;
+
+        if (Calinea.config().verboseLogging()) {
+            Calinea.logger().info("Reused " + reusedFonts + "/" + fontInfos.size() + " fonts and "
+                + reusedLanguages[0] + "/" + mergedTranslations.languageCount() + " languages from the previous pack.");
+        }
+        return merged;
+    }
+
+    private ContentHashes contentHashes() {
+        ContentHashes hashes = this.contentHashes;
+        if (hashes == null) {
+            hashes = new ContentHashes();
+            for (FontInfo font : fonts.getFonts().values()) {
+                hashes.fonts.put(font.getFontKey(), font.contentHash());
+            }
+            for (TranslationInfo language : translations.getLoadedLanguages().values()) {
+                hashes.languages.put(language.language(), language.contentHash());
+            }
+            this.contentHashes = hashes;
+        }
+        return hashes;
+    }
+
+    private static final class ContentHashes {
+        private final Map<Key, Long> fonts = new HashMap<>();
+        private final Map<String, Long> languages = new HashMap<>();
+    }
 }
@@ -0,0 +1,39 @@
+package io.calinea.pack.font;
+
+import io.calinea.space.SpaceFont;
+
+/**
+ * Fixed-point width arithmetic.
+ * <p>
+ * Widths are expressed as a {@code long} number of 1/{@value #UNITS_PER_PIXEL} pixel units, the finest step
+ * {@link SpaceFont} can produce. Every width of a pack is a multiple of this step, so summing units is exact
+ * where summing doubles slowly drifts, and a measured width converts back to padding without any rounding.
+ * </p>
+ */
+public final class FixedWidth {
+
+    /** Number of units in one pixel, see {@link SpaceFont#FRACTIONAL_DENOMINATOR}. */
+    public static final int UNITS_PER_PIXEL = SpaceFont.FRACTIONAL_DENOMINATOR;
+
+    // Clamp so that the "infinite" spaces (1e37 px) can still be summed without overflowing
+    private static final long MAX_UNITS = 1L << 52;
+
+    private FixedWidth() {
+        throw new UnsupportedOperationException("Utility class - do not instantiate");
+    }
+
+    /**
+     * Converts pixels to the nearest number of units.
+     */
+    public static long toUnits(double pixels) {
+        long units = Math.round(pixels * UNITS_PER_PIXEL);
+        return Math.clamp(units, -MAX_UNITS, MAX_UNITS);
+    }
+
+    /**
+     * Converts units to pixels.
+     */
+    public static double toPixels(long units) {
+        return units / (double) UNITS_PER_PIXEL;
+    }
+}
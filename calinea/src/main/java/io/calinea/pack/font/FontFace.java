@@ -0,0 +1,174 @@
+package io.calinea.pack.font;
+
+import org.jspecify.annotations.Nullable;
+
+import io.calinea.Calinea;
+import net.kyori.adventure.key.Key;
+
+/**
+ * A font together with its bold flag, ready to measure glyphs.
+ * <p>
+ * Faces are interned by {@link FontsInfo#getFace(Key, boolean)}: a measurer looks the face up once per component
+ * and reuses it for every codepoint, so the hot loop neither hashes the font key nor checks the bold flag.
+ * The 1px bold offset is already part of the widths returned by a bold face.
+ * </p>
+ * <p>
+ * A face whose font is not in the pack still exists (with no {@link #getFont() font} and a negative {@link #getFontId() id}):
+ * every glyph then uses the default width, like {@link FontsInfo#getWidth(Key, int)}.
+ * </p>
+ */
+public final class FontFace {
+
+    /** Font id of the faces whose font is not in the pack. */
+    public static final int MISSING_FONT_ID = -1;
+
+    /** Sentinel returned by {@link #measureLatin1Units(String)} when the fast path cannot be used. */
+    public static final long NO_UNITS = Long.MIN_VALUE;
+
+    private static final int LATIN1_SIZE = 256;
+
+    private final Key fontKey;
+    private final @Nullable ResolvedFont font;
+    private final int fontId;
+    private final boolean bold;
+    private final double boldOffset;
+    private final double defaultWidth;
+
+    // Dense copies of the first 256 codepoints with the bold offset applied, NaN / NO_UNITS when not defined
+    private final double[] latin1;
+    private final long[] latin1Units;
+
+    FontFace(Key fontKey, @Nullable ResolvedFont font, int fontId, boolean bold, double defaultWidth) {
+        this.latin1 = new double[LATIN1_SIZE];
+        this.latin1Units = new long[LATIN1_SIZE];
+        this.fontKey = fontKey;
+        this.font = font;
+        this.fontId = fontId;
+        this.bold = bold;
+        this.boldOffset = bold ? 1 : 0; // Bold duplicates the glyph 1px to the right
+        this.defaultWidth = defaultWidth;
+
+        for (int codepoint = 0; codepoint < LATIN1_SIZE; codepoint++) {
+            double width = font != null ? font.getWidth(codepoint) + boldOffset : ResolvedFont.NO_WIDTH;
+            latin1[codepoint] = width;
+            latin1Units[codepoint] = Double.isNaN(width) ? NO_UNITS : FixedWidth.toUnits(width);
+        }
+    }
+
+    // Same face for a renumbered font (same widths), sharing the dense tables
+    private FontFace(FontFace face, ResolvedFont font) {
+        this.fontKey = face.fontKey;
+        this.font = font;
+        this.fontId = font.getId();
+        this.bold = face.bold;
+        this.boldOffset = face.boldOffset;
+        this.defaultWidth = face.defaultWidth;
+        this.latin1 = face.latin1;
+        this.latin1Units = face.latin1Units;
+    }
+
+    /**
+     * Gets this face for a renumbered font, see {@link ResolvedFont#withId(int)}.
+     */
+    FontFace withFont(ResolvedFont font) {
+        return font == this.font ? this : new FontFace(this, font);
+    }
+
+    public Key getFontKey() {
+        return fontKey;
+    }
+
+    /**
+     * Gets the resolved font of this face, or null if the font is not in the pack.
+     */
+    public @Nullable ResolvedFont getFont() {
+        return font;
+    }
+
+    /**
+     * Gets the dense id of the font, or {@link #MISSING_FONT_ID} if the font is not in the pack.
+     */
+    public int getFontId() {
+        return fontId;
+    }
+
+    public boolean isBold() {
+        return bold;
+    }
+
+    /**
+     * Gets the width of a codepoint, bold offset included.
+     * If the font or the character is not found, the default width is used (and a warning logged if enabled).
+     */
+    public double getWidth(int codepoint) {
+        if (font == null) {
+            if (Calinea.config().warnOnMissingFonts()) {
+                Calinea.logger().warning("Font with key '" + fontKey.asString() + "' not found. Using default width '" + defaultWidth + "'.");
+            }
+            return defaultWidth + boldOffset;
+        }
+
+        double width = font.getWidth(codepoint);
+        if (Double.isNaN(width)) {
+            if (Calinea.config().warnOnMissingWidths()) {
+                Calinea.logger().warning("Character '" + Character.toString(codepoint) + "' not found in font '" + fontKey.asString() + "' or its references. Using default width '" + defaultWidth + "'.");
+            }
+            return defaultWidth + boldOffset;
+        }
+
+        return width + boldOffset;
+    }
+
+    /**
+     * Gets the width of a codepoint in {@link FixedWidth} units, bold offset included.
+     * @see #getWidth(int)
+     */
+    public long getWidthUnits(int codepoint) {
+        return FixedWidth.toUnits(getWidth(codepoint));
+    }
+
+    /**
+     * Sums the widths of a Latin-1 text in one pass over the dense table, newlines having no width.
+     * @return the width in pixels, or NaN if the text is not Latin-1 or a character has no width
+     */
+    public double measureLatin1(String text) {
+        double total = 0;
+        for (int index = 0; index < text.length(); index++) {
+            char c = text.charAt(index);
+            if (c >= LATIN1_SIZE) {
+                return ResolvedFont.NO_WIDTH;
+            }
+            if (c != '\n') {
+                total += latin1[c]; // a missing width is NaN and propagates
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Same as {@link #measureLatin1(String)} in {@link FixedWidth} units.
+     * @return the width in units, or {@link #NO_UNITS} if the text is not Latin-1 or a character has no width
+     */
+    public long measureLatin1Units(String text) {
+        long total = 0;
+        for (int index = 0; index < text.length(); index++) {
+            char c = text.charAt(index);
+            if (c >= LATIN1_SIZE) {
+                return NO_UNITS;
+            }
+            if (c != '\n') {
+                long units = latin1Units[c];
+                if (units == NO_UNITS) {
+                    return NO_UNITS;
+                }
+                total += units;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FontFace{key='%s', id=%d, bold=%b}", fontKey, fontId, bold);
+    }
+}
@@ -4,7 +4,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.stream.IntStream;
 
+import io.calinea.space.SpaceFont;
+import io.calinea.utils.ContentHasher;
 import net.kyori.adventure.key.Key;
 
 /**
@@ -12,13 +15,17 @@ import net.kyori.adventure.key.Key;
  */
 public class FontInfo {
 
+    // Fractional widths parsed from a pack may differ from n/4800 by the last bits
+    private static final double ARITHMETIC_SPACE_TOLERANCE = 1e-9;
+
     private final Key fontKey;
-    private final Map<Integer, Double> widths; // codepoint -> width
+    private final WidthTable widths; // codepoint -> width
     private final List<Key> references; // fonts this font references
+    private boolean arithmeticSpaces; // SpaceFont codepoints computed instead of stored
     
     public FontInfo(Key fontKey) {
         this.fontKey = fontKey;
-        this.widths = new TreeMap<>();
+        this.widths = new WidthTable();
         this.references = new ArrayList<>();
     }
     
@@ -26,7 +33,20 @@ public class FontInfo {
         return fontKey;
     }
     
+    /**
+     * Gets a sorted copy of the widths of this font.
+     * Prefer {@link #getWidthTable()} which does not copy nor box anything.
+     */
     public Map<Integer, Double> getWidths() {
+        Map<Integer, Double> copy = new TreeMap<>();
+        widths.forEach(copy::put);
+        return copy;
+    }
+
+    /**
+     * Gets the widths of this font (direct widths only, references are not resolved).
+     */
+    public WidthTable getWidthTable() {
         return widths;
     }
     
@@ -52,6 +72,45 @@ public class FontInfo {
     public void setWidth(int codepoint, double width) {
         widths.put(codepoint, width);
     }
+
+    /**
+     * Whether the integer and fractional {@link SpaceFont} codepoints of this font are computed with
+     * {@link SpaceFont#width(int)} instead of being stored in the width table.
+     */
+    public boolean hasArithmeticSpaces() {
+        return arithmeticSpaces;
+    }
+
+    public void setArithmeticSpaces(boolean arithmeticSpaces) {
+        this.arithmeticSpaces = arithmeticSpaces;
+    }
+
+    /**
+     * Replaces the stored SpaceFont widths by the arithmetic model, if this font defines every integer and fractional
+     * space codepoint with exactly the width of the encoding. Other widths (e.g. the infinity spaces) are kept.
+     * @return true if the widths were replaced
+     */
+    public boolean compactArithmeticSpaces() {
+        for (int codepoint : spaceCodepoints()) {
+            double width = widths.get(codepoint);
+            if (Double.isNaN(width) || Math.abs(width - SpaceFont.width(codepoint)) > ARITHMETIC_SPACE_TOLERANCE) {
+                return false;
+            }
+        }
+
+        for (int codepoint : spaceCodepoints()) {
+            widths.remove(codepoint);
+        }
+        arithmeticSpaces = true;
+        return true;
+    }
+
+    private static int[] spaceCodepoints() {
+        return IntStream.concat(
+            IntStream.rangeClosed(SpaceFont.INTEGER_SPACE_ZERO + SpaceFont.MIN_WIDTH, SpaceFont.INTEGER_SPACE_ZERO + SpaceFont.MAX_WIDTH),
+            IntStream.rangeClosed(SpaceFont.FRACTIONAL_SPACE_ZERO - SpaceFont.FRACTIONAL_DENOMINATOR, SpaceFont.FRACTIONAL_SPACE_ZERO + SpaceFont.FRACTIONAL_DENOMINATOR)
+        ).toArray();
+    }
     
     /**
      * Gets the direct width for a specific codepoint from this font only.
@@ -59,14 +118,33 @@ public class FontInfo {
      * @return WidthResult containing the width if found, or MISSING_WIDTH status if not set.
      */
     public WidthResult getDirectWidth(int codepoint) {
-        Double width = widths.get(codepoint);
-        if (width != null) {
-            return WidthResult.found(width);
+        double width = widths.get(codepoint);
+        if (Double.isNaN(width) && arithmeticSpaces) {
+            width = SpaceFont.width(codepoint);
+        }
+        if (Double.isNaN(width)) {
+            return WidthResult.missingWidth();
         }
-        return WidthResult.missingWidth();
+        return WidthResult.found(width);
     }
 
-
+    /**
+     * Computes a hash of everything this font defines (key, references, widths, arithmetic spaces),
+     * to detect the fonts that did not change between two reads of a pack.
+     * The hash is computed on each call.
+     */
+    public long contentHash() {
+        ContentHasher hasher = new ContentHasher()
+            .putString(fontKey.asString())
+            .putBoolean(arithmeticSpaces)
+            .putInt(references.size());
+        for (Key reference : references) {
+            hasher.putString(reference.asString());
+        }
+        hasher.putInt(widths.size());
+        widths.forEach((codepoint, width) -> hasher.putInt(codepoint).putDouble(width));
+        return hasher.hash();
+    }
     
     @Override
     public String toString() {
@@ -1,17 +1,22 @@
 package io.calinea.pack.font;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SequencedCollection;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Unmodifiable;
 import org.jspecify.annotations.Nullable;
 
 import io.calinea.Calinea;
+import io.calinea.space.SpaceFont;
 import net.kyori.adventure.key.Key;
 
 public class FontsInfo {
@@ -19,6 +24,7 @@ public class FontsInfo {
     public static final double DEFAULT_CHAR_WIDTH = 5.0;
 
     private Map<Key, FontInfo> fonts;
+    private volatile @Nullable Compiled compiled;
 
     private final double defaultWidth;
 
@@ -45,6 +51,7 @@ public class FontsInfo {
 
     public FontsInfo addFont(FontInfo fontInfo) {
         this.fonts.put(fontInfo.getFontKey(), fontInfo);
+        this.compiled = null;
         return this;
     }
 
@@ -52,6 +59,7 @@ public class FontsInfo {
         for (FontInfo fontInfo : fontInfos) {
             this.fonts.put(fontInfo.getFontKey(), fontInfo);
         }
+        this.compiled = null;
         return this;
     }
 
@@ -69,77 +77,250 @@ public class FontsInfo {
     }
 
     /**
-     * Gets the width of a character in a specific font.
-     * If the font or character is not found, returns the default width.
-     * Resolves references recursively.
+     * Flattens the reference chain of every font into a {@link ResolvedFont}.
+     * <p>
+     * References are followed depth-first in declaration order, the first font defining a codepoint wins.
+     * Missing references are ignored and circular references are detected here, once, instead of on every lookup.
+     * Each font also gets a dense id (declaration order) and its two {@link FontFace faces}.
+     * Called after reading a pack, and lazily on the first lookup if the fonts were modified since.
+     * </p>
+     *
+     * @return the resolved fonts by key
      */
-    public double getWidth(Key fontKey, int codepoint) {
-        WidthResult result = getWidth(fontKey, codepoint, new HashSet<>());
+    public Map<Key, ResolvedFont> compile() {
+        return compile(null);
+    }
 
-        // Handle error cases
-        if (!result.isValid()) {
-            if (result.getStatus() == WidthResult.Status.MISSING_WIDTH && Calinea.config().warnOnMissingWidths()){
-                Calinea.logger().warning("Character '" + Character.toString(codepoint) + "' not found in font '" + fontKey.asString() + "' or its references. Using default width '" + defaultWidth + "'.");
-            }
+    /**
+     * Same as {@link #compile()}, but reuses what was compiled by a previous pack when it is still valid.
+     * <p>
+     * A resolved font and its faces are reused when its whole reference chain is made of the same fonts as before,
+     * matched by key and by {@link FontInfo#contentHash() content} (the same instances once
+     * {@link io.calinea.pack.PackInfo#reuseUnchanged} was applied, which skips hashing them).
+     * If the font got another id, only the id is replaced: the merged widths and the dense tables of the faces are shared.
+     * Faces reused with their id are the same instances, so caches keyed by face stay valid for them.
+     * </p>
+     *
+     * @param previous the previously compiled fonts, or null to compile everything
+     * @return the resolved fonts by key
+     */
+    public Map<Key, ResolvedFont> compile(@Nullable FontsInfo previous) {
+        // Faces hold the default width, nothing can be reused if it changed
+        @Nullable Compiled previousCompiled = previous != null && previous.defaultWidth == defaultWidth ? previous.compiled : null;
+
+        Map<Key, ResolvedFont> resolvedFonts = new HashMap<>();
+        ResolvedFont[] byId = new ResolvedFont[fonts.size()];
+        Map<Key, FontFace[]> faces = new ConcurrentHashMap<>();
+
+        Map<FontInfo, Long> contentHashes = new IdentityHashMap<>(); // each changed font is hashed once
+        int id = 0;
+        for (FontInfo fontInfo : fonts.values()) {
+            Key fontKey = fontInfo.getFontKey();
+            List<FontInfo> chain = new ArrayList<>();
+            collectChain(fontInfo, new HashSet<>(), new HashSet<>(), chain);
 
-            if (result.getStatus() == WidthResult.Status.MISSING_FONT && Calinea.config().warnOnMissingFonts()){
-                Calinea.logger().warning("Font with key '" + fontKey.asString() + "' not found. Using default width '" + defaultWidth + "'.");
+            ResolvedFont previousFont = previous != null && previousCompiled != null
+                ? findReusable(previous, previousCompiled, fontKey, chain, contentHashes)
+                : null;
+            ResolvedFont font;
+            if (previousFont != null) {
+                font = previousFont.withId(id);
+                FontFace[] previousFaces = previousCompiled.faces.get(fontKey);
+                faces.put(fontKey, font == previousFont
+                    ? previousFaces
+                    : new FontFace[] { previousFaces[0].withFont(font), previousFaces[1].withFont(font) });
+            } else {
+                font = resolve(fontKey, id, chain);
+                faces.put(fontKey, createFaces(fontKey, font));
             }
+            resolvedFonts.put(fontKey, font);
+            byId[id++] = font;
+        }
 
-            return defaultWidth;
+        // Faces of fonts that are still missing
+        if (previousCompiled != null) {
+            previousCompiled.faces.forEach((fontKey, pair) -> {
+                if (pair[0].getFont() == null && !fonts.containsKey(fontKey)) {
+                    faces.putIfAbsent(fontKey, pair);
+                }
+            });
+        }
+
+        Compiled compiled = new Compiled(Collections.unmodifiableMap(resolvedFonts), byId, faces);
+        this.compiled = compiled;
+        return compiled.resolvedFonts;
+    }
+
+    private static @Nullable ResolvedFont findReusable(FontsInfo previous, Compiled previousCompiled, Key fontKey,
+            List<FontInfo> chain, Map<FontInfo, Long> contentHashes) {
+        ResolvedFont font = previousCompiled.resolvedFonts.get(fontKey);
+        if (font == null || font.getChain().size() != chain.size()) {
+            return null;
+        }
+        for (int i = 0; i < chain.size(); i++) {
+            FontInfo fontInfo = chain.get(i);
+            FontInfo previousInfo = previous.fonts.get(font.getChain().get(i));
+            if (previousInfo == fontInfo) {
+                continue;
+            }
+            if (previousInfo == null || !previousInfo.getFontKey().equals(fontInfo.getFontKey())
+                    || contentHash(previousInfo, contentHashes) != contentHash(fontInfo, contentHashes)) {
+                return null;
+            }
         }
+        return font;
+    }
+
+    private static long contentHash(FontInfo fontInfo, Map<FontInfo, Long> contentHashes) {
+        return contentHashes.computeIfAbsent(fontInfo, FontInfo::contentHash);
+    }
 
-        return result.getWidth();
+    /**
+     * Gets the resolved (flattened) font for the given key.
+     * @return the resolved font, or null if the font is not in this pack
+     */
+    public @Nullable ResolvedFont getResolvedFont(Key fontKey) {
+        return compiled().resolvedFonts.get(fontKey);
+    }
+
+    /**
+     * Gets the resolved font with the given dense id.
+     * @see ResolvedFont#getId()
+     */
+    public ResolvedFont getResolvedFont(int fontId) {
+        return compiled().byId[fontId];
     }
-    
+
     /**
-     * Internal method to get width with circular reference protection.
-     * @return WidthResult containing the width if found, or error status if not found/error occurred.
+     * Gets the number of fonts, which is also the number of dense font ids.
      */
-    private WidthResult getWidth(Key fontKey, int codepoint, Set<Key> visited) {
-        FontInfo fontInfo = fonts.get(fontKey);
+    public int getFontCount() {
+        return compiled().byId.length;
+    }
 
-        if (fontInfo == null) {
-            return WidthResult.missingFont();
+    /**
+     * Gets the face of a font, to measure many glyphs without looking the font up again.
+     * Faces are interned: the same instance is returned for the same font and bold flag,
+     * including for fonts that are not in the pack (measured with the default width).
+     */
+    public FontFace getFace(Key fontKey, boolean bold) {
+        Map<Key, FontFace[]> faces = compiled().faces;
+        FontFace[] pair = faces.get(fontKey);
+        if (pair == null) {
+            pair = faces.computeIfAbsent(fontKey, key -> createFaces(key, null));
         }
-        
-        // Check for circular references
-        if (visited.contains(fontKey)) {
-            if(Calinea.config().verboseLogging()){
-                Calinea.logger().info("Circular reference detected for font '" + fontKey.asString() + "', stopping recursion.");
-            }
-            return WidthResult.circularReference();
+        return pair[bold ? 1 : 0];
+    }
+
+    /**
+     * Checks if a face is one of the current faces of this pack (by identity).
+     * A face of a previous compilation that was not reused is not.
+     */
+    public boolean hasFace(FontFace face) {
+        FontFace[] pair = compiled().faces.get(face.getFontKey());
+        return pair != null && pair[face.isBold() ? 1 : 0] == face;
+    }
+
+    /**
+     * Gets the width of a character in a specific font.
+     * If the font or character is not found, returns the default width.
+     * References are resolved through the compiled {@link ResolvedFont}.
+     */
+    public double getWidth(Key fontKey, int codepoint) {
+        return getFace(fontKey, false).getWidth(codepoint);
+    }
+
+    /**
+     * Gets the width of a character in a specific font, in {@link FixedWidth} units.
+     * @see #getWidth(Key, int)
+     */
+    public long getWidthUnits(Key fontKey, int codepoint) {
+        return FixedWidth.toUnits(getWidth(fontKey, codepoint));
+    }
+
+    private Compiled compiled() {
+        Compiled compiled = this.compiled;
+        if (compiled == null) {
+            compile();
+            compiled = this.compiled;
         }
-        
-        visited.add(fontKey);
-
-        try {
-            // Check direct width first
-            WidthResult directResult = fontInfo.getDirectWidth(codepoint);
-            if (directResult.isValid()) { // Changed: now accepts any width including negative
-                return directResult;
+        return compiled;
+    }
+
+    private FontFace[] createFaces(Key fontKey, @Nullable ResolvedFont font) {
+        int fontId = font != null ? font.getId() : FontFace.MISSING_FONT_ID;
+        return new FontFace[] {
+            new FontFace(fontKey, font, fontId, false, defaultWidth),
+            new FontFace(fontKey, font, fontId, true, defaultWidth)
+        };
+    }
+
+    private ResolvedFont resolve(Key fontKey, int id, List<FontInfo> chain) {
+        // Merge widths in resolution order, the first font defining a codepoint wins
+        WidthTable merged = new WidthTable();
+        boolean arithmeticSpaces = false;
+        for (FontInfo fontInfo : chain) {
+            if (!arithmeticSpaces) {
+                merged.putAllAbsent(fontInfo.getWidthTable());
+                arithmeticSpaces = fontInfo.hasArithmeticSpaces();
+                continue;
             }
-            
-            // Check references in order
-            for (Key referenceKey : fontInfo.getReferences()) {
-                // Skip if this would create a circular reference
-                if (visited.contains(referenceKey)) {
-                    if(Calinea.config().verboseLogging()){
-                        Calinea.logger().info("Skipping circular reference from '" + fontKey.asString() + "' to '" + referenceKey.asString() + "'.");
-                    }
-                    continue; // Skip this reference, try the next one
+
+            // After an arithmetic font, space codepoints are already defined by the formula
+            fontInfo.getWidthTable().forEach((codepoint, width) -> {
+                if (!SpaceFont.isSpaceCodepoint(codepoint) && !merged.contains(codepoint)) {
+                    merged.put(codepoint, width);
                 }
-                
-                WidthResult result = getWidth(referenceKey, codepoint, visited);
-                if (result.isValid()) {
-                    return result; // Found in reference
+            });
+        }
+
+        List<Key> chainKeys = chain.stream().map(FontInfo::getFontKey).toList();
+        return new ResolvedFont(fontKey, id, chainKeys, merged, arithmeticSpaces);
+    }
+
+    /**
+     * Depth-first walk of the references, with circular reference protection.
+     * @param path the fonts currently being resolved (to detect cycles)
+     * @param added the fonts already in the chain (a font reached twice resolves the same way, so it is only kept once)
+     */
+    private void collectChain(FontInfo fontInfo, Set<Key> path, Set<Key> added, List<FontInfo> chain) {
+        Key fontKey = fontInfo.getFontKey();
+        path.add(fontKey);
+
+        if (added.add(fontKey)) {
+            chain.add(fontInfo);
+        }
+
+        for (Key referenceKey : fontInfo.getReferences()) {
+            // Skip if this would create a circular reference
+            if (path.contains(referenceKey)) {
+                if (Calinea.config().verboseLogging()) {
+                    Calinea.logger().info("Skipping circular reference from '" + fontKey.asString() + "' to '" + referenceKey.asString() + "'.");
                 }
+                continue; // Skip this reference, try the next one
+            }
+
+            FontInfo reference = fonts.get(referenceKey);
+            if (reference != null) {
+                collectChain(reference, path, added, chain);
             }
-        } finally {
-            visited.remove(fontKey);
         }
 
-        // Not found anywhere in this font or its references
-        return WidthResult.missingWidth();
+        path.remove(fontKey);
+    }
+
+    /**
+     * Everything derived from the fonts by {@link #compile()}, swapped at once.
+     */
+    private static final class Compiled {
+        private final Map<Key, ResolvedFont> resolvedFonts;
+        private final ResolvedFont[] byId;
+        private final Map<Key, FontFace[]> faces; // regular and bold faces, faces of missing fonts are added on demand
+
+        private Compiled(Map<Key, ResolvedFont> resolvedFonts, ResolvedFont[] byId, Map<Key, FontFace[]> faces) {
+            this.resolvedFonts = resolvedFonts;
+            this.byId = byId;
+            this.faces = faces;
+        }
     }
 }
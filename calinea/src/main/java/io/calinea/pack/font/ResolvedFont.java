@@ -0,0 +1,96 @@
+package io.calinea.pack.font;
+
+import java.util.List;
+
+import io.calinea.space.SpaceFont;
+import net.kyori.adventure.key.Key;
+
+/**
+ * A font whose reference chain has been flattened into a single lookup table.
+ * <p>
+ * Built once by {@link FontsInfo#compile()}: the widths of the font and of every font it
+ * references (in resolution order, first definition wins) are merged, so a glyph lookup
+ * no longer walks references nor allocates anything.
+ * </p>
+ */
+public class ResolvedFont {
+
+    /**
+     * Sentinel returned by {@link #getWidth(int)} when no font of the chain defines the codepoint.
+     * Widths can be negative, so NaN is used instead of a magic number.
+     */
+    public static final double NO_WIDTH = WidthTable.NO_WIDTH;
+
+    private final Key fontKey;
+    private final int id; // dense id, see FontsInfo#getResolvedFont(int)
+    private final List<Key> chain; // resolution order, this font first
+    private final WidthTable widths; // merged widths of the whole chain
+    private final boolean arithmeticSpaces; // a font of the chain computes the SpaceFont widths, see FontInfo#hasArithmeticSpaces()
+
+    ResolvedFont(Key fontKey, int id, List<Key> chain, WidthTable widths, boolean arithmeticSpaces) {
+        this.fontKey = fontKey;
+        this.id = id;
+        this.chain = List.copyOf(chain);
+        this.widths = widths;
+        this.arithmeticSpaces = arithmeticSpaces;
+    }
+
+    /**
+     * Gets this font with another id, sharing its merged widths.
+     */
+    ResolvedFont withId(int id) {
+        return id == this.id ? this : new ResolvedFont(fontKey, id, chain, widths, arithmeticSpaces);
+    }
+
+    public Key getFontKey() {
+        return fontKey;
+    }
+
+    /**
+     * Gets the dense id of this font, from 0 to the number of fonts of the pack (exclusive), in declaration order.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the fonts consulted by this font, in resolution order (this font first).
+     * Missing references and circular references are already removed.
+     */
+    public List<Key> getChain() {
+        return chain;
+    }
+
+    /**
+     * Gets the resolved width of a codepoint.
+     * @return the width, or {@link #NO_WIDTH} if no font of the chain defines it
+     */
+    public double getWidth(int codepoint) {
+        double width = widths.get(codepoint);
+        if (width != width && arithmeticSpaces) { // NaN check, kept cheap for the common hit
+            // Fonts after the arithmetic font never store space codepoints, so the formula has the right priority
+            width = SpaceFont.width(codepoint);
+        }
+        return width;
+    }
+
+    public boolean hasWidth(int codepoint) {
+        return !Double.isNaN(getWidth(codepoint));
+    }
+
+    /**
+     * Whether the SpaceFont widths are computed by {@link SpaceFont#width(int)} instead of being stored.
+     */
+    public boolean hasArithmeticSpaces() {
+        return arithmeticSpaces;
+    }
+
+    public int size() {
+        return widths.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResolvedFont{key='%s', id=%d, nbOfCharacters=%d, chain=%s}", fontKey, id, widths.size(), chain);
+    }
+}
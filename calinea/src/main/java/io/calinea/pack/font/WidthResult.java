@@ -5,6 +5,10 @@ package io.calinea.pack.font;
  */
 public class WidthResult {
 
+    private static final WidthResult MISSING_WIDTH = new WidthResult(0, Status.MISSING_WIDTH);
+    private static final WidthResult MISSING_FONT = new WidthResult(0, Status.MISSING_FONT);
+    private static final WidthResult CIRCULAR_REFERENCE = new WidthResult(0, Status.CIRCULAR_REFERENCE);
+
     private final double width;
     private final Status status;
 
@@ -13,15 +17,15 @@ public class WidthResult {
     }
 
     public static WidthResult missingWidth() {
-        return new WidthResult(0, Status.MISSING_WIDTH);
+        return MISSING_WIDTH;
     }
 
     public static WidthResult missingFont() {
-        return new WidthResult(0, Status.MISSING_FONT);
+        return MISSING_FONT;
     }
 
     public static WidthResult circularReference() {
-        return new WidthResult(0, Status.CIRCULAR_REFERENCE);
+        return CIRCULAR_REFERENCE;
     }
 
     public double getWidth() {
@@ -0,0 +1,444 @@
+package io.calinea.pack.font;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Compact codepoint to width table.
+ * <p>
+ * Two levels: a directory indexed by {@code codepoint >>> 8} pointing to pages of 256 codepoints.
+ * Each page stores its widths in a primitive array with a presence bitmap, so a lookup is two array reads
+ * and nothing is boxed. The directory only grows up to the highest page used, and pages without any width
+ * all point to one shared empty page, so supplementary planes cost nothing unless they are used.
+ * </p>
+ * <p>
+ * Widths are stored as {@code short} while they are integers, as {@code float} while the float is exact,
+ * and as {@code double} otherwise (e.g. the 1/4800 fractional spaces), so no width is ever rounded.
+ * </p>
+ * <p>
+ * Pages can be shared between tables (see {@link #putAllAbsent(WidthTable)}); a shared page is frozen
+ * and copied before being modified.
+ * </p>
+ * <p>
+ * A page can also be a view over a buffer (see {@link #putMappedPage(int, long[], ByteBuffer, int)}),
+ * its widths being read in place. Such a page is frozen too.
+ * </p>
+ */
+public class WidthTable {
+
+    /** Sentinel returned by {@link #get(int)} for codepoints without width. */
+    public static final double NO_WIDTH = Double.NaN;
+
+    public static final int PAGE_SHIFT = 8;
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int MAX_PAGES = (Character.MAX_CODE_POINT + 1) >>> PAGE_SHIFT;
+    private static final Page EMPTY_PAGE = Page.empty();
+
+    private Page[] pages = new Page[0];
+    private int size;
+
+    /**
+     * Gets the width of a codepoint.
+     * @return the width, or {@link #NO_WIDTH} if not set
+     */
+    public double get(int codepoint) {
+        Page[] pages = this.pages;
+        int pageIndex = codepoint >>> PAGE_SHIFT;
+        if (pageIndex >= pages.length) {
+            return NO_WIDTH;
+        }
+        return pages[pageIndex].get(codepoint & PAGE_MASK);
+    }
+
+    public boolean contains(int codepoint) {
+        Page[] pages = this.pages;
+        int pageIndex = codepoint >>> PAGE_SHIFT;
+        return pageIndex < pages.length && pages[pageIndex].contains(codepoint & PAGE_MASK);
+    }
+
+    public void put(int codepoint, double width) {
+        if (!Character.isValidCodePoint(codepoint)) {
+            throw new IllegalArgumentException("Invalid codepoint: 0x" + Integer.toHexString(codepoint));
+        }
+
+        Page page = writablePage(codepoint >>> PAGE_SHIFT);
+        if (page.put(codepoint & PAGE_MASK, width)) {
+            size++;
+        }
+    }
+
+    /**
+     * Sets the same width for every codepoint from {@code first} to {@code last} (inclusive).
+     * Pages are filled in bulk instead of codepoint by codepoint.
+     */
+    public void putRange(int first, int last, double width) {
+        if (!Character.isValidCodePoint(first) || !Character.isValidCodePoint(last) || first > last) {
+            throw new IllegalArgumentException("Invalid codepoint range: 0x" + Integer.toHexString(first) + "..0x" + Integer.toHexString(last));
+        }
+
+        for (int pageIndex = first >>> PAGE_SHIFT; pageIndex <= last >>> PAGE_SHIFT; pageIndex++) {
+            int pageStart = pageIndex << PAGE_SHIFT;
+            int fromSlot = Math.max(first, pageStart) & PAGE_MASK;
+            int toSlot = Math.min(last, pageStart | PAGE_MASK) & PAGE_MASK;
+
+            Page page = writablePage(pageIndex);
+            size += page.putRange(fromSlot, toSlot, width);
+        }
+    }
+
+    /**
+     * Sets a whole page as a view over a buffer, whose widths are read in place instead of being copied.
+     * <p>
+     * The buffer holds the widths of the present slots only, in slot order, each stored on {@code valueBytes}:
+     * 2 for {@code short}, 4 for {@code float}, 8 for {@code double} (big-endian, from index 0).
+     * It must not change while the table is in use.
+     * </p>
+     *
+     * @param pageIndex the index of the page ({@code codepoint >>> PAGE_SHIFT}), which must be empty
+     * @param presence the presence bitmap of the page, {@value #PAGE_SIZE} bits
+     * @param values the widths of the present slots
+     * @param valueBytes the size of a width: 2, 4 or 8
+     */
+    public void putMappedPage(int pageIndex, long[] presence, ByteBuffer values, int valueBytes) {
+        if (pageIndex < 0 || pageIndex >= MAX_PAGES) {
+            throw new IllegalArgumentException("Invalid page index: " + pageIndex);
+        }
+        if (valueBytes != Short.BYTES && valueBytes != Float.BYTES && valueBytes != Double.BYTES) {
+            throw new IllegalArgumentException("Invalid width size: " + valueBytes);
+        }
+        if (presence.length != PAGE_SIZE / Long.SIZE) {
+            throw new IllegalArgumentException("Invalid presence bitmap length: " + presence.length);
+        }
+        int count = 0;
+        for (long word : presence) {
+            count += Long.bitCount(word);
+        }
+        if (values.remaining() < count * valueBytes) {
+            throw new IllegalArgumentException("Missing widths: " + count + " expected");
+        }
+        ensureDirectory(pageIndex);
+        if (pages[pageIndex].count != 0) {
+            throw new IllegalStateException("Page " + pageIndex + " is not empty");
+        }
+
+        pages[pageIndex] = Page.mapped(presence, values.slice(values.position(), count * valueBytes), valueBytes, count);
+        size += count;
+    }
+
+    /**
+     * Removes the width of a codepoint.
+     * @return true if the codepoint had a width
+     */
+    public boolean remove(int codepoint) {
+        if (!contains(codepoint)) {
+            return false;
+        }
+        writablePage(codepoint >>> PAGE_SHIFT).remove(codepoint & PAGE_MASK);
+        size--;
+        return true;
+    }
+
+    /**
+     * Adds every width of the other table whose codepoint is not set in this table.
+     * Pages absent from this table are shared with the other table instead of being copied.
+     */
+    public void putAllAbsent(WidthTable other) {
+        for (int pageIndex = 0; pageIndex < other.pages.length; pageIndex++) {
+            Page theirs = other.pages[pageIndex];
+            if (theirs.count == 0) {
+                continue;
+            }
+
+            Page mine = pageIndex < pages.length ? pages[pageIndex] : EMPTY_PAGE;
+            if (mine.count == 0) {
+                ensureDirectory(pageIndex);
+                theirs.frozen = true;
+                pages[pageIndex] = theirs;
+                size += theirs.count;
+                continue;
+            }
+
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                if (theirs.contains(slot) && !mine.contains(slot)) {
+                    mine = writablePage(pageIndex);
+                    mine.put(slot, theirs.get(slot));
+                    size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of codepoints with a width.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the lowest codepoint with a width, or -1 if the table is empty.
+     */
+    public int minCodepoint() {
+        for (int pageIndex = 0; pageIndex < pages.length; pageIndex++) {
+            Page page = pages[pageIndex];
+            for (int slot = 0; page.count > 0 && slot < PAGE_SIZE; slot++) {
+                if (page.contains(slot)) {
+                    return (pageIndex << PAGE_SHIFT) | slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the highest codepoint with a width, or -1 if the table is empty.
+     */
+    public int maxCodepoint() {
+        for (int pageIndex = pages.length - 1; pageIndex >= 0; pageIndex--) {
+            Page page = pages[pageIndex];
+            for (int slot = PAGE_SIZE - 1; page.count > 0 && slot >= 0; slot--) {
+                if (page.contains(slot)) {
+                    return (pageIndex << PAGE_SHIFT) | slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Iterates over all widths in ascending codepoint order.
+     */
+    public void forEach(WidthConsumer consumer) {
+        for (int pageIndex = 0; pageIndex < pages.length; pageIndex++) {
+            Page page = pages[pageIndex];
+            for (int slot = 0; page.count > 0 && slot < PAGE_SIZE; slot++) {
+                if (page.contains(slot)) {
+                    consumer.accept((pageIndex << PAGE_SHIFT) | slot, page.get(slot));
+                }
+            }
+        }
+    }
+
+    private Page writablePage(int pageIndex) {
+        ensureDirectory(pageIndex);
+        Page page = pages[pageIndex];
+        if (page.frozen) {
+            page = page.copy();
+            pages[pageIndex] = page;
+        }
+        return page;
+    }
+
+    private void ensureDirectory(int pageIndex) {
+        if (pageIndex < pages.length) {
+            return;
+        }
+        int oldLength = pages.length;
+        int newLength = Math.min(MAX_PAGES, Math.max(pageIndex + 1, oldLength + (oldLength >> 1)));
+        pages = Arrays.copyOf(pages, newLength);
+        Arrays.fill(pages, oldLength, newLength, EMPTY_PAGE);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WidthTable{size=%d, pages=%d}", size, pages.length);
+    }
+
+    /**
+     * Receives the widths of a {@link WidthTable}.
+     */
+    @FunctionalInterface
+    public interface WidthConsumer {
+        void accept(int codepoint, double width);
+    }
+
+    /**
+     * 256 consecutive codepoints. Exactly one of the value arrays is in use, promoted from
+     * short to float to double the first time a width does not fit exactly.
+     */
+    private static final class Page {
+        private final long[] presence = new long[PAGE_SIZE / Long.SIZE];
+        private short @Nullable [] shorts;
+        private float @Nullable [] floats;
+        private double @Nullable [] doubles;
+        private @Nullable ByteBuffer mapped; // the widths of the present slots, read in place
+        private int mappedBytes;
+        private int count;
+        private boolean frozen;
+
+        private Page(short @Nullable [] shorts) {
+            this.shorts = shorts;
+        }
+
+        private static Page empty() {
+            Page page = new Page(new short[0]);
+            page.frozen = true;
+            return page;
+        }
+
+        private static Page mapped(long[] presence, ByteBuffer values, int valueBytes, int count) {
+            Page page = new Page(null);
+            System.arraycopy(presence, 0, page.presence, 0, presence.length);
+            page.mapped = values;
+            page.mappedBytes = valueBytes;
+            page.count = count;
+            page.frozen = true; // copied to arrays before being modified
+            return page;
+        }
+
+        private boolean contains(int slot) {
+            return (presence[slot >>> 6] & (1L << slot)) != 0;
+        }
+
+        private double get(int slot) {
+            if (!contains(slot)) {
+                return NO_WIDTH;
+            }
+            if (mapped != null) {
+                return getMapped(slot);
+            }
+            if (shorts != null) {
+                return shorts[slot];
+            }
+            if (floats != null) {
+                return floats[slot];
+            }
+            return doubles[slot];
+        }
+
+        /**
+         * @return true if the slot was empty
+         */
+        private boolean put(int slot, double width) {
+            if (doubles != null) {
+                doubles[slot] = width;
+            } else if (floats != null) {
+                if ((float) width == width) {
+                    floats[slot] = (float) width;
+                } else {
+                    promoteToDoubles();
+                    doubles[slot] = width;
+                }
+            } else {
+                if (shorts.length == 0) {
+                    shorts = new short[PAGE_SIZE];
+                }
+                if ((short) width == width) {
+                    shorts[slot] = (short) width;
+                } else if ((float) width == width) {
+                    promoteToFloats();
+                    floats[slot] = (float) width;
+                } else {
+                    promoteToDoubles();
+                    doubles[slot] = width;
+                }
+            }
+
+            boolean added = !contains(slot);
+            presence[slot >>> 6] |= 1L << slot;
+            if (added) {
+                count++;
+            }
+            return added;
+        }
+
+        /**
+         * @return the number of slots that were empty
+         */
+        private int putRange(int fromSlot, int toSlot, double width) {
+            // Make sure the storage can hold the width exactly, like put()
+            if (shorts != null && shorts.length == 0) {
+                shorts = new short[PAGE_SIZE];
+            }
+            if (shorts != null && (short) width != width) {
+                if ((float) width == width) {
+                    promoteToFloats();
+                } else {
+                    promoteToDoubles();
+                }
+            } else if (floats != null && (float) width != width) {
+                promoteToDoubles();
+            }
+
+            if (shorts != null) {
+                Arrays.fill(shorts, fromSlot, toSlot + 1, (short) width);
+            } else if (floats != null) {
+                Arrays.fill(floats, fromSlot, toSlot + 1, (float) width);
+            } else {
+                Arrays.fill(doubles, fromSlot, toSlot + 1, width);
+            }
+
+            int before = count;
+            for (int slot = fromSlot; slot <= toSlot; slot++) {
+                presence[slot >>> 6] |= 1L << slot;
+            }
+            count = 0;
+            for (long word : presence) {
+                count += Long.bitCount(word);
+            }
+            return count - before;
+        }
+
+        private void remove(int slot) {
+            presence[slot >>> 6] &= ~(1L << slot);
+            count--;
+        }
+
+        private void promoteToFloats() {
+            floats = new float[PAGE_SIZE];
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                floats[slot] = shorts[slot];
+            }
+            shorts = null;
+        }
+
+        private void promoteToDoubles() {
+            doubles = new double[PAGE_SIZE];
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                doubles[slot] = shorts != null ? shorts[slot] : floats[slot];
+            }
+            shorts = null;
+            floats = null;
+        }
+
+        // The values are stored for the present slots only: the index of a slot is the number of present slots before it
+        private double getMapped(int slot) {
+            int word = slot >>> 6;
+            int rank = Long.bitCount(presence[word] & ((1L << slot) - 1));
+            for (int w = 0; w < word; w++) {
+                rank += Long.bitCount(presence[w]);
+            }
+            return switch (mappedBytes) {
+                case Short.BYTES -> mapped.getShort(rank * Short.BYTES);
+                case Float.BYTES -> mapped.getFloat(rank * Float.BYTES);
+                default -> mapped.getDouble(rank * Double.BYTES);
+            };
+        }
+
+        private Page copy() {
+            if (mapped != null) {
+                Page copy = new Page(new short[0]);
+                for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                    if (contains(slot)) {
+                        copy.put(slot, getMapped(slot));
+                    }
+                }
+                return copy;
+            }
+            Page copy = new Page(shorts != null ? shorts.clone() : null);
+            copy.floats = floats != null ? floats.clone() : null;
+            copy.doubles = doubles != null ? doubles.clone() : null;
+            System.arraycopy(presence, 0, copy.presence, 0, presence.length);
+            copy.count = count;
+            return copy;
+        }
+    }
+}
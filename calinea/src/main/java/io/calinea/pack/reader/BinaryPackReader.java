@@ -0,0 +1,210 @@
+package io.calinea.pack.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import io.calinea.pack.PackInfo;
+import io.calinea.pack.font.FontInfo;
+import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.font.WidthTable;
+import io.calinea.pack.translation.MappedStrings;
+import io.calinea.pack.translation.TranslationInfo;
+import io.calinea.pack.translation.TranslationKeys;
+import io.calinea.pack.translation.TranslationsInfo;
+import net.kyori.adventure.key.Key;
+
+/**
+ * Reader for the binary Calinea config, memory-mapped and read in place instead of parsed.
+ * <p>
+ * Layout (big-endian), every string being an index in the string pool:
+ * <pre>
+ * int    magic ("CALN")
+ * short  version
+ * short  flags (reserved)
+ * int    string count, int end offset of each string, int data length, UTF-8 bytes of all strings
+ * double default width
+ * int    font count, then for each font:
+ *     int key, byte flags (1 = arithmetic spaces), int reference count, int references...
+ *     width pages: int page index (-1 ends the font), byte storage, long[4] presence, values of the present slots
+ * int    language count, then for each language:
+ *     int language, int entry count, then for each entry: int key, int value
+ * </pre>
+ * Width pages mirror {@link WidthTable} pages: 256 codepoints with a presence bitmap, the values being stored
+ * as short, float or double. They are views over the mapped file (see {@link WidthTable#putMappedPage}),
+ * and the translation values are read from the mapped string pool on each access (see {@link MappedStrings}):
+ * only the font keys, the language names and the translation keys are decoded on load.
+ * </p>
+ * <p>
+ * The mapped file must not be modified while the pack is in use, which would crash the JVM on some systems:
+ * it must be replaced by a new file instead, as {@code BinaryPackWriter} does.
+ * </p>
+ */
+public class BinaryPackReader {
+
+    public static final int MAGIC = 0x43414C4E; // "CALN"
+    public static final int VERSION = 2;
+    public static final String FILE_EXTENSION = ".bin";
+
+    public static final byte STORAGE_SHORT = 0;
+    public static final byte STORAGE_FLOAT = 1;
+    public static final byte STORAGE_DOUBLE = 2;
+
+    public static final byte FONT_FLAG_ARITHMETIC_SPACES = 1;
+
+    public static final int END_OF_PAGES = -1;
+    public static final int PRESENCE_WORDS = WidthTable.PAGE_SIZE / Long.SIZE;
+
+    /**
+     * Checks if a file starts with the binary magic number.
+     *
+     * @param file the file to check
+     * @return true if the file is a binary Calinea config
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            byte[] header = input.readNBytes(Integer.BYTES);
+            return header.length == Integer.BYTES && ByteBuffer.wrap(header).getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Reads a binary Calinea config file.
+     *
+     * @param binaryFile path to the binary config file
+     * @return PackInfo containing fonts and translations
+     * @throws IOException if reading fails or the file is invalid
+     */
+    public PackInfo read(Path binaryFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.READ)) {
+            // The mapping stays valid once the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated or invalid binary pack: " + binaryFile, e);
+        }
+    }
+
+    private PackInfo read(ByteBuffer buffer) throws IOException {
+        int magic = buffer.getInt();
+        if (magic != MAGIC) {
+            throw new IOException("Invalid binary pack: bad magic number 0x" + Integer.toHexString(magic));
+        }
+        int version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary pack version: " + version + ". Supported: " + VERSION);
+        }
+        buffer.getShort(); // flags, reserved
+
+        MappedStrings strings = readStringPool(buffer);
+        FontsInfo fontsInfo = readFonts(buffer, strings);
+        TranslationsInfo translationsInfo = readTranslations(buffer, strings);
+        return new PackInfo(fontsInfo, translationsInfo);
+    }
+
+    private MappedStrings readStringPool(ByteBuffer buffer) throws IOException {
+        int count = readCount(buffer);
+        ByteBuffer ends = buffer.slice(buffer.position(), count * Integer.BYTES);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        int dataLength = readCount(buffer);
+        ByteBuffer data = buffer.slice(buffer.position(), dataLength);
+        buffer.position(buffer.position() + dataLength);
+        return new MappedStrings(ends, data, count);
+    }
+
+    private FontsInfo readFonts(ByteBuffer buffer, MappedStrings strings) throws IOException {
+        FontsInfo fontsInfo = new FontsInfo(buffer.getDouble());
+
+        int fontCount = readCount(buffer);
+        for (int i = 0; i < fontCount; i++) {
+            FontInfo fontInfo = new FontInfo(Key.key(strings.get(stringIndex(buffer, strings))));
+            byte flags = buffer.get();
+            fontInfo.setArithmeticSpaces((flags & FONT_FLAG_ARITHMETIC_SPACES) != 0);
+
+            int referenceCount = readCount(buffer);
+            for (int r = 0; r < referenceCount; r++) {
+                fontInfo.addReference(Key.key(strings.get(stringIndex(buffer, strings))));
+            }
+
+            readPages(buffer, fontInfo.getWidthTable());
+            fontsInfo.addFont(fontInfo);
+        }
+        return fontsInfo;
+    }
+
+    private void readPages(ByteBuffer buffer, WidthTable widths) throws IOException {
+        for (int pageIndex = buffer.getInt(); pageIndex != END_OF_PAGES; pageIndex = buffer.getInt()) {
+            int valueBytes = switch (buffer.get()) {
+                case STORAGE_SHORT -> Short.BYTES;
+                case STORAGE_FLOAT -> Float.BYTES;
+                case STORAGE_DOUBLE -> Double.BYTES;
+                default -> throw new IOException("Invalid width storage at " + (buffer.position() - 1));
+            };
+            long[] presence = new long[PRESENCE_WORDS];
+            int count = 0;
+            for (int w = 0; w < PRESENCE_WORDS; w++) {
+                presence[w] = buffer.getLong();
+                count += Long.bitCount(presence[w]);
+            }
+
+            widths.putMappedPage(pageIndex, presence, buffer, valueBytes);
+            buffer.position(buffer.position() + count * valueBytes);
+        }
+    }
+
+    private TranslationsInfo readTranslations(ByteBuffer buffer, MappedStrings strings) throws IOException {
+        TranslationsInfo translationsInfo = new TranslationsInfo();
+        TranslationKeys keys = translationsInfo.keys();
+        int[] keyIds = new int[strings.size()]; // by string index: key id + 1, so each key is decoded once
+
+        int languageCount = readCount(buffer);
+        for (int i = 0; i < languageCount; i++) {
+            String language = strings.get(stringIndex(buffer, strings));
+            int entryCount = readCount(buffer);
+            int[] poolIndices = new int[Math.max(keys.size(), entryCount)];
+            Arrays.fill(poolIndices, -1);
+            for (int e = 0; e < entryCount; e++) {
+                int keyIndex = stringIndex(buffer, strings);
+                int valueIndex = stringIndex(buffer, strings);
+                int keyId = keyIds[keyIndex] - 1;
+                if (keyId < 0) {
+                    keyId = keys.intern(strings.get(keyIndex));
+                    keyIds[keyIndex] = keyId + 1;
+                }
+                if (keyId >= poolIndices.length) {
+                    int oldLength = poolIndices.length;
+                    poolIndices = Arrays.copyOf(poolIndices, Math.max(keyId + 1, oldLength + (oldLength >> 1)));
+                    Arrays.fill(poolIndices, oldLength, poolIndices.length, -1);
+                }
+                poolIndices[keyId] = valueIndex;
+            }
+            TranslationInfo translationInfo = new TranslationInfo(language, keys, strings, poolIndices);
+            translationInfo.trimToSize();
+            translationsInfo.addTranslation(translationInfo);
+        }
+        return translationsInfo;
+    }
+
+    private static int stringIndex(ByteBuffer buffer, MappedStrings strings) throws IOException {
+        int index = buffer.getInt();
+        if (index < 0 || index >= strings.size()) {
+            throw new IOException("Invalid string index: " + index);
+        }
+        return index;
+    }
+
+    private static int readCount(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IOException("Invalid count: " + count);
+        }
+        return count;
+    }
+}
@@ -1,21 +1,48 @@
 package io.calinea.pack.reader;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.jspecify.annotations.Nullable;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import io.calinea.pack.font.FontInfo;
 import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.font.WidthTable;
 import net.kyori.adventure.key.Key;
 
 /**
  * Reads the "fonts" section from Calinea config JSON.
+ * <p>
+ * Since version 2, a width key can also be a range of codepoints sharing the same width:
+ * the first codepoint, {@value #RANGE_SEPARATOR}, then the last codepoint (e.g. {@code "a..z"}).
+ * </p>
  */
-public class FontsSectionReader implements ISectionReader<FontsInfo> {
+public class FontsSectionReader implements IStreamingSectionReader<FontsInfo> {
     
     private static final String SECTION_NAME = "fonts";
+    public static final String RANGE_SEPARATOR = "..";
+    public static final int FIRST_RANGE_VERSION = 2;
+
+    private final boolean rangeKeys;
+
+    /**
+     * Creates a reader for the version 1 fonts section.
+     */
+    public FontsSectionReader() {
+        this(1);
+    }
+
+    /**
+     * @param version the config version, range keys are only read since {@link #FIRST_RANGE_VERSION}
+     */
+    public FontsSectionReader(int version) {
+        this.rangeKeys = version >= FIRST_RANGE_VERSION;
+    }
     
     @Override
     public String getSectionName() {
@@ -66,17 +93,160 @@ public class FontsSectionReader implements ISectionReader<FontsInfo> {
             }
         }
         
+        // Read arithmetic spaces flag (optional)
+        @Nullable JsonNode arithmeticSpacesNode = fontNode.get("arithmetic_spaces");
+        if (arithmeticSpacesNode != null && arithmeticSpacesNode.asBoolean()) {
+            fontInfo.setArithmeticSpaces(true);
+        }
+
         // Read widths (optional)
         @Nullable JsonNode widthsNode = fontNode.get("widths");
         if (widthsNode != null && widthsNode.isObject()) {
-            widthsNode.properties().forEach(entry -> {
-                String charKey = entry.getKey();
-                double width = entry.getValue().asDouble();
-                int codepoint = charKey.codePointAt(0);
-                fontInfo.setWidth(codepoint, width);
-            });
+            for (var entry : widthsNode.properties()) {
+                putWidth(fontInfo.getWidthTable(), entry.getKey(), entry.getValue().asDouble(), fontKey);
+            }
         }
         
         return fontInfo;
     }
+
+    @Override
+    public FontsInfo read(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("'fonts' section must be an object");
+        }
+
+        double defaultWidth = Double.NaN;
+        @Nullable List<FontInfo> fonts = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "default_width" -> {
+                    if (!token.isNumeric()) {
+                        throw new IOException("Missing or invalid 'default_width' in fonts section");
+                    }
+                    defaultWidth = parser.getDoubleValue();
+                }
+                case "entries" -> {
+                    if (token != JsonToken.START_ARRAY) {
+                        throw new IOException("Missing or invalid 'entries' array in fonts section");
+                    }
+                    fonts = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        fonts.add(readFontEntry(parser));
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (Double.isNaN(defaultWidth)) {
+            throw new IOException("Missing or invalid 'default_width' in fonts section");
+        }
+        if (fonts == null) {
+            throw new IOException("Missing or invalid 'entries' array in fonts section");
+        }
+        return new FontsInfo(fonts, defaultWidth);
+    }
+
+    private FontInfo readFontEntry(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Missing or invalid 'fontKey' in font entry");
+        }
+
+        // The fontKey usually comes first: the widths then go straight into the font table
+        @Nullable FontInfo fontInfo = null;
+        @Nullable WidthTable pendingWidths = null;
+        List<Key> references = new ArrayList<>();
+        boolean arithmeticSpaces = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "fontKey" -> {
+                    String fontKey = parser.getValueAsString("");
+                    parser.skipChildren();
+                    if (fontKey.isEmpty()) {
+                        throw new IOException("Missing or invalid 'fontKey' in font entry");
+                    }
+                    fontInfo = new FontInfo(Key.key(fontKey));
+                }
+                case "references" -> {
+                    if (token != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        references.add(Key.key(parser.getValueAsString("")));
+                        parser.skipChildren();
+                    }
+                }
+                case "arithmetic_spaces" -> arithmeticSpaces = parser.getValueAsBoolean(false);
+                case "widths" -> {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    @Nullable Key fontKey = fontInfo != null ? fontInfo.getFontKey() : null;
+                    WidthTable widths = fontInfo != null ? fontInfo.getWidthTable() : (pendingWidths = new WidthTable());
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String charKey = parser.currentName();
+                        parser.nextToken();
+                        putWidth(widths, charKey, parser.getValueAsDouble(0), fontKey);
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (fontInfo == null) {
+            throw new IOException("Missing or invalid 'fontKey' in font entry");
+        }
+        if (pendingWidths != null) {
+            fontInfo.getWidthTable().putAllAbsent(pendingWidths);
+        }
+        references.forEach(fontInfo::addReference);
+        if (arithmeticSpaces) {
+            fontInfo.setArithmeticSpaces(true);
+        }
+        return fontInfo;
+    }
+
+    /**
+     * Puts the width of a width key, a single codepoint or a range since {@link #FIRST_RANGE_VERSION}.
+     */
+    private void putWidth(WidthTable widths, String charKey, double width, @Nullable Key fontKey) throws IOException {
+        int codepoint = charKey.codePointAt(0);
+
+        int last = rangeKeys ? rangeEnd(charKey) : -1;
+        if (last >= 0) {
+            if (last < codepoint) {
+                throw new IOException("Invalid width range '" + charKey + "'" + (fontKey != null ? " in font " + fontKey.asString() : ""));
+            }
+            widths.putRange(codepoint, last, width);
+        } else {
+            widths.put(codepoint, width);
+        }
+    }
+
+    /**
+     * Gets the last codepoint of a range key ({@code <first>..<last>}).
+     * @return the last codepoint, or -1 if the key is a single codepoint
+     */
+    private static int rangeEnd(String key) {
+        int firstLength = Character.charCount(key.codePointAt(0));
+        if (key.length() <= firstLength + RANGE_SEPARATOR.length() || !key.startsWith(RANGE_SEPARATOR, firstLength)) {
+            return -1;
+        }
+
+        int lastIndex = firstLength + RANGE_SEPARATOR.length();
+        int last = key.codePointAt(lastIndex);
+        if (lastIndex + Character.charCount(last) != key.length()) {
+            return -1;
+        }
+        return last;
+    }
 }
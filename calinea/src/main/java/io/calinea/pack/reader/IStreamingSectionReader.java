@@ -0,0 +1,27 @@
+package io.calinea.pack.reader;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * A section reader that can also consume the section straight from parser tokens,
+ * without building a {@link com.fasterxml.jackson.databind.JsonNode} tree first.
+ *
+ * @param <T> the type of data this reader produces
+ */
+public interface IStreamingSectionReader<T> extends ISectionReader<T> {
+
+    /**
+     * Reads and parses the section from a parser.
+     * <p>
+     * The parser is positioned on the first token of the section value (e.g. {@code START_OBJECT}),
+     * and is left on its last token (e.g. the matching {@code END_OBJECT}).
+     * </p>
+     *
+     * @param parser the parser positioned on the section value
+     * @return the parsed result
+     * @throws IOException if parsing fails
+     */
+    T read(JsonParser parser) throws IOException;
+}
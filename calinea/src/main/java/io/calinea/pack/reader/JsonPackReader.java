@@ -14,11 +14,15 @@ import io.calinea.pack.translation.TranslationsInfo;
 
 /**
  * Main reader for Calinea config JSON files.
+ * <p>
+ * The whole file is read as a {@link JsonNode} tree first, see {@link StreamingJsonPackReader}
+ * for a reader that does not keep the tree in memory.
+ * </p>
  */
 public class JsonPackReader {
     
     public static final String FORMAT = "calinea-config";
-    public static final SequencedCollection<Integer> SUPPORTED_VERSIONS = List.of(1);
+    public static final SequencedCollection<Integer> SUPPORTED_VERSIONS = List.of(1, 2);
     public static final int CURRENT_VERSION = SUPPORTED_VERSIONS.getLast();
     
     private final ObjectMapper objectMapper;
@@ -42,6 +46,7 @@ public class JsonPackReader {
         
         return switch (version) {
             case 1 -> readV1(root);
+            case 2 -> readV2(root);
             default -> throw new IOException("Unsupported version: " + version);
         };
     }
@@ -68,6 +73,14 @@ public class JsonPackReader {
         );
     }
     
+    // Version 2: fonts section with codepoint ranges
+    private PackInfo readV2(JsonNode root) throws IOException {
+        return new PackInfo(
+            readSection(root, new FontsSectionReader(2), new FontsInfo()),
+            readSection(root, new TranslationsSectionReader(), new TranslationsInfo())
+        );
+    }
+    
     /**
      * Reads an optional section from the root node.
      * Returns the default value if the section is not present.
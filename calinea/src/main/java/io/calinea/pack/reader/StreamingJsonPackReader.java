@@ -0,0 +1,146 @@
+package io.calinea.pack.reader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.calinea.pack.PackInfo;
+import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.translation.TranslationsInfo;
+import io.calinea.resolver.ComponentResolver;
+
+/**
+ * Reader for Calinea config JSON files that fills the width tables and translation maps
+ * straight from the parser tokens, without building the whole {@link JsonNode} tree
+ * like {@link JsonPackReader} does.
+ * <p>
+ * The sections are streamed once the format and version are known, which is always the case
+ * for generated files. A section found before them is read as a tree, then parsed once the version is read.
+ * </p>
+ * <p>
+ * With lazy translations, only the fallback language ({@link ComponentResolver#MINECRAFT_FALLBACK_LOCAL}) is read,
+ * the other languages are loaded from the file on their first lookup (see {@link TranslationsSectionReader}).
+ * </p>
+ */
+public class StreamingJsonPackReader {
+
+    private final ObjectMapper objectMapper;
+    private final boolean lazyTranslations;
+
+    public StreamingJsonPackReader() {
+        this(false);
+    }
+
+    /**
+     * @param lazyTranslations whether to load the languages on their first lookup, except the fallback language
+     */
+    public StreamingJsonPackReader(boolean lazyTranslations) {
+        this.objectMapper = new ObjectMapper();
+        this.lazyTranslations = lazyTranslations;
+    }
+
+    /**
+     * Reads a Calinea config file and returns all parsed data.
+     *
+     * @param jsonFile path to the JSON config file
+     * @return PackInfo containing fonts and translations
+     * @throws IOException if reading or parsing fails
+     */
+    public PackInfo read(Path jsonFile) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(jsonFile.toFile())) {
+            return read(parser, jsonFile);
+        }
+    }
+
+    private PackInfo read(JsonParser parser, Path jsonFile) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Invalid format: expected a JSON object");
+        }
+
+        @Nullable String format = null;
+        int version = -1;
+        @Nullable FontsSectionReader fontsReader = null;
+        TranslationsSectionReader translationsReader = lazyTranslations
+            ? new TranslationsSectionReader(jsonFile, Set.of(ComponentResolver.MINECRAFT_FALLBACK_LOCAL))
+            : new TranslationsSectionReader();
+
+        @Nullable FontsInfo fontsInfo = null;
+        @Nullable TranslationsInfo translationsInfo = null;
+        Map<String, JsonNode> deferredSections = new LinkedHashMap<>(); // sections found before the header
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            if (field.equals("format")) {
+                format = parser.getValueAsString("");
+                parser.skipChildren();
+            } else if (field.equals("version")) {
+                version = parser.getValueAsInt(-1);
+                parser.skipChildren();
+            } else if (fontsReader == null) {
+                deferredSections.put(field, parser.readValueAsTree());
+            } else if (field.equals(fontsReader.getSectionName())) {
+                fontsInfo = fontsReader.read(parser);
+            } else if (field.equals(translationsReader.getSectionName())) {
+                translationsInfo = translationsReader.read(parser);
+            } else {
+                parser.skipChildren();
+            }
+
+            // Validate the header as soon as it is complete, the next sections are then streamed
+            if (fontsReader == null && format != null && version != -1) {
+                validateFormat(format);
+                validateVersion(version);
+                fontsReader = new FontsSectionReader(version);
+            }
+        }
+
+        if (fontsReader == null) {
+            validateFormat(format != null ? format : "");
+            validateVersion(version);
+            fontsReader = new FontsSectionReader(version);
+        }
+
+        if (fontsInfo == null) {
+            fontsInfo = readDeferredSection(deferredSections, fontsReader, new FontsInfo());
+        }
+        if (translationsInfo == null) {
+            translationsInfo = readDeferredSection(deferredSections, translationsReader, new TranslationsInfo());
+        }
+        return new PackInfo(fontsInfo, translationsInfo);
+    }
+
+    private void validateFormat(String format) throws IOException {
+        if (!format.equals(JsonPackReader.FORMAT)) {
+            throw new IOException("Invalid format: expected '" + JsonPackReader.FORMAT + "', got '" + format + "'");
+        }
+    }
+
+    private void validateVersion(int version) throws IOException {
+        if (!JsonPackReader.SUPPORTED_VERSIONS.contains(version)) {
+            throw new IOException("Unsupported version: " + version + ". Supported: " + JsonPackReader.SUPPORTED_VERSIONS);
+        }
+    }
+
+    /**
+     * Reads an optional section that was found before the header.
+     * Returns the default value if the section is not present.
+     */
+    private <T> T readDeferredSection(Map<String, JsonNode> deferredSections, ISectionReader<T> reader, T defaultValue) throws IOException {
+        JsonNode sectionNode = deferredSections.get(reader.getSectionName());
+        if (sectionNode == null) {
+            return defaultValue;
+        }
+        return reader.read(sectionNode);
+    }
+}
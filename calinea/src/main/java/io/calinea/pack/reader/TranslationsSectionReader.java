@@ -1,12 +1,28 @@
 package io.calinea.pack.reader;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.jspecify.annotations.Nullable;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.calinea.pack.translation.TranslationInfo;
+import io.calinea.pack.translation.TranslationKeys;
+import io.calinea.pack.translation.TranslationLoader;
 import io.calinea.pack.translation.TranslationsInfo;
 
 /**
@@ -19,10 +35,38 @@ import io.calinea.pack.translation.TranslationsInfo;
  *     { "language": "fr_fr", "entries": { "key": "value", ... } }
  * ]
  * </pre>
+ * <p>
+ * In lazy mode (streaming only), the entries of a language are skipped: only the byte range of the language
+ * in the file is kept, and the language is parsed from there on its first lookup. The file size and modification
+ * time are checked before, a language of a file that changed since is not loaded.
+ * </p>
  */
-public class TranslationsSectionReader implements ISectionReader<TranslationsInfo> {
+public class TranslationsSectionReader implements IStreamingSectionReader<TranslationsInfo> {
     
     private static final String SECTION_NAME = "translations";
+
+    private final @Nullable FileFingerprint lazySource;
+    private final Set<String> eagerLanguages;
+
+    /**
+     * Creates a reader loading every language.
+     */
+    public TranslationsSectionReader() {
+        this.lazySource = null;
+        this.eagerLanguages = Set.of();
+    }
+
+    /**
+     * Creates a reader loading the languages lazily from the given file, the one being streamed.
+     *
+     * @param sourceFile the file being read
+     * @param eagerLanguages the languages that are still read right away
+     * @throws IOException if the file attributes cannot be read
+     */
+    public TranslationsSectionReader(Path sourceFile, Set<String> eagerLanguages) throws IOException {
+        this.lazySource = FileFingerprint.of(sourceFile);
+        this.eagerLanguages = Set.copyOf(eagerLanguages);
+    }
     
     @Override
     public String getSectionName() {
@@ -37,7 +81,7 @@ public class TranslationsSectionReader implements ISectionReader<TranslationsInf
         
         TranslationsInfo result = new TranslationsInfo();
         for (JsonNode langNode : translationsNode) {
-            result.addTranslation(readSingleLanguage(langNode));
+            result.addTranslation(readSingleLanguage(langNode, result.keys()));
         }
         return result;
     }
@@ -46,7 +90,7 @@ public class TranslationsSectionReader implements ISectionReader<TranslationsInf
      * Reads a single language entry.
      * Format: { "language": "en_us", "entries": { "key": "value", ... } }
      */
-    private TranslationInfo readSingleLanguage(JsonNode langNode) throws IOException {
+    private TranslationInfo readSingleLanguage(JsonNode langNode, TranslationKeys keys) throws IOException {
         if (!langNode.isObject()) {
             throw new IOException("Translation entry must be an object");
         }
@@ -58,7 +102,7 @@ public class TranslationsSectionReader implements ISectionReader<TranslationsInf
         }
         String language = languageNode.asText();
         
-        TranslationInfo translationInfo = new TranslationInfo(language);
+        TranslationInfo translationInfo = new TranslationInfo(language, keys);
         
         // Read entries
         @Nullable JsonNode entriesNode = langNode.get("entries");
@@ -72,4 +116,166 @@ public class TranslationsSectionReader implements ISectionReader<TranslationsInf
         
         return translationInfo;
     }
+
+    @Override
+    public TranslationsInfo read(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("'translations' section must be an array");
+        }
+
+        TranslationsInfo result = new TranslationsInfo();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            long start = parser.currentTokenLocation().getByteOffset(); // -1 if the parser does not read bytes
+            if (lazySource == null || start < 0) {
+                result.addTranslation(readSingleLanguage(parser, false, result.keys()));
+                continue;
+            }
+
+            TranslationInfo translationInfo = readSingleLanguage(parser, true, result.keys());
+            String language = translationInfo.language();
+            if (translationInfo.isEmpty()) {
+                LanguageRangeLoader loader = new LanguageRangeLoader(lazySource, language, start, parser.currentLocation().getByteOffset(), result.keys());
+                if (isLazy(language)) {
+                    result.addLazyTranslation(language, loader);
+                    continue;
+                }
+                translationInfo = loader.load(); // An eager language whose entries came before its name
+            }
+            result.addTranslation(translationInfo);
+        }
+        return result;
+    }
+
+    private boolean isLazy(String language) {
+        return lazySource != null && !eagerLanguages.contains(language);
+    }
+
+    /**
+     * Reads a language entry.
+     * @param skipLazyEntries whether to skip the entries of a lazy language (or of a language whose name is not read yet),
+     *     the returned language is then empty
+     * @param keys the dictionary of the pack
+     */
+    private TranslationInfo readSingleLanguage(JsonParser parser, boolean skipLazyEntries, TranslationKeys keys) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Translation entry must be an object");
+        }
+
+        // The language usually comes first: the entries then go straight into the final map
+        String language = "";
+        @Nullable TranslationInfo translationInfo = null;
+        @Nullable Map<String, String> pendingEntries = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "language" -> {
+                    language = parser.getValueAsString("");
+                    parser.skipChildren();
+                }
+                case "entries" -> {
+                    if (token != JsonToken.START_OBJECT || (skipLazyEntries && (language.isEmpty() || isLazy(language)))) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    if (!language.isEmpty()) {
+                        translationInfo = new TranslationInfo(language, keys);
+                        readEntries(parser, translationInfo::addTranslation);
+                    } else {
+                        pendingEntries = new LinkedHashMap<>();
+                        readEntries(parser, pendingEntries::put);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (language.isEmpty()) {
+            throw new IOException("Missing or invalid 'language' in translation entry");
+        }
+        if (pendingEntries != null) {
+            TranslationInfo pendingInfo = new TranslationInfo(language, keys);
+            pendingInfo.mergeAll(pendingEntries);
+            return pendingInfo;
+        }
+        return translationInfo != null ? translationInfo : new TranslationInfo(language, keys);
+    }
+
+    private static void readEntries(JsonParser parser, BiConsumer<String, String> sink) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            parser.nextToken();
+            sink.accept(key, parser.getValueAsString(""));
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Loads a language from its byte range in the file, if the file did not change since it was indexed.
+     */
+    private static final class LanguageRangeLoader implements TranslationLoader {
+        private final FileFingerprint source;
+        private final String language;
+        private final long start;
+        private final long end;
+        private final TranslationKeys keys; // of the pack, so that the loaded language is not remapped
+
+        private LanguageRangeLoader(FileFingerprint source, String language, long start, long end, TranslationKeys keys) {
+            this.source = source;
+            this.language = language;
+            this.start = start;
+            this.end = end;
+            this.keys = keys;
+        }
+
+        @Override
+        public TranslationInfo load() throws IOException {
+            if (!source.matches(FileFingerprint.of(source.file))) {
+                throw new IOException(source.file + " changed since it was read, cannot load the language '" + language + "'");
+            }
+
+            ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(end - start));
+            try (FileChannel channel = FileChannel.open(source.file, StandardOpenOption.READ)) {
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes, start + bytes.position()) < 0) {
+                        throw new IOException("Unexpected end of " + source.file + " while loading the language '" + language + "'");
+                    }
+                }
+            }
+
+            try (JsonParser parser = new ObjectMapper().createParser(bytes.array())) {
+                parser.nextToken();
+                TranslationInfo translationInfo = new TranslationsSectionReader().readSingleLanguage(parser, false, keys);
+                if (!translationInfo.language().equals(language)) {
+                    throw new IOException("Expected the language '" + language + "' in " + source.file + ", found '" + translationInfo.language() + "'");
+                }
+                return translationInfo;
+            }
+        }
+    }
+
+    /**
+     * Identifies a version of a file by its size and modification time.
+     */
+    private static final class FileFingerprint {
+        private final Path file;
+        private final long size;
+        private final FileTime lastModified;
+
+        private FileFingerprint(Path file, long size, FileTime lastModified) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private static FileFingerprint of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileFingerprint(file, attributes.size(), attributes.lastModifiedTime());
+        }
+
+        private boolean matches(FileFingerprint other) {
+            return size == other.size && lastModified.equals(other.lastModified);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package io.calinea.pack.translation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pool of UTF-8 strings read in place from a buffer (usually a memory-mapped file), decoded on each access.
+ * <p>
+ * Layout: the end offset of each string (int, relative to the start of the data), then the bytes of all strings.
+ * Only absolute reads are used, so the pool can be read by several threads.
+ * The buffer must not change while the pool is in use.
+ * </p>
+ */
+public final class MappedStrings {
+
+    private final ByteBuffer ends;
+    private final ByteBuffer data;
+    private final int count;
+
+    /**
+     * @param ends the end offsets, {@code count} ints from index 0
+     * @param data the bytes of the strings, from index 0
+     * @param count the number of strings
+     * @throws IllegalArgumentException if the offsets are not ascending or go past the data
+     */
+    public MappedStrings(ByteBuffer ends, ByteBuffer data, int count) {
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int end = ends.getInt(i * Integer.BYTES);
+            if (end < previous || end > data.limit()) {
+                throw new IllegalArgumentException("Invalid end offset of string " + i + ": " + end);
+            }
+            previous = end;
+        }
+        this.ends = ends;
+        this.data = data;
+        this.count = count;
+    }
+
+    /**
+     * Decodes a string of the pool.
+     */
+    public String get(int index) {
+        int start = index == 0 ? 0 : ends.getInt((index - 1) * Integer.BYTES);
+        int end = ends.getInt(index * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        data.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return count;
+    }
+}
@@ -1,5 +1,7 @@
 package io.calinea.pack.translation;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -7,33 +9,88 @@ import java.util.Map;
 import org.jetbrains.annotations.Unmodifiable;
 import org.jspecify.annotations.Nullable;
 
+import io.calinea.utils.ContentHasher;
+
 /**
  * Contains translation mappings for a single language.
  * For example: "entity.minecraft.pig" -> "Pig"
+ * <p>
+ * Keys are ids of a {@link TranslationKeys dictionary}, values are stored in an array indexed by key id.
+ * Once added to a {@link TranslationsInfo}, a language uses the dictionary of the pack, shared by its languages.
+ * A value with only Latin-1 characters (most of them) is kept as its bytes, without the {@link String} around it.
+ * Entries are in the order of the dictionary, which is the insertion order when this language is the first to add its keys.
+ * </p>
+ * <p>
+ * A language read from a binary pack keeps its values in place instead, as indices in a {@link MappedStrings} pool
+ * decoded on each access. It is copied to the heap the first time it is modified.
+ * </p>
  */
 public class TranslationInfo {
-    
+
+    private static final Object[] EMPTY = new Object[0];
+    private static final int[] NO_INDICES = new int[0];
+
     private final String language;
-    private final Map<String, String> translations;
-    
+    private TranslationKeys keys;
+    private Object[] values = EMPTY; // by key id: byte[] (Latin-1), String, or null if missing
+    private @Nullable MappedStrings pool; // if read in place, values is then empty
+    private int[] poolIndices = NO_INDICES; // by key id: index in the pool, or -1 if missing
+    private int size;
+    private volatile TranslationPattern @Nullable [] patterns; // by key id, compiled on first use
+
+    /**
+     * Creates a language with its own dictionary, replaced by the one of the pack once added to a {@link TranslationsInfo}.
+     */
     public TranslationInfo(String language) {
-        this.language = language;
-        this.translations = new LinkedHashMap<>();
+        this(language, new TranslationKeys());
     }
-    
+
     public TranslationInfo(String language, Map<String, String> translations) {
+        this(language);
+        mergeAll(translations);
+    }
+
+    /**
+     * Creates a language using a dictionary, usually the one of the pack it is read for, see {@link TranslationsInfo#keys()}.
+     */
+    public TranslationInfo(String language, TranslationKeys keys) {
         this.language = language;
-        this.translations = new LinkedHashMap<>(translations);
+        this.keys = keys;
     }
-    
+
+    /**
+     * Creates a language whose values are read in place from a pool of strings.
+     *
+     * @param keys the dictionary of the ids
+     * @param pool the pool of the values
+     * @param poolIndices the index of the value of each key id in the pool, or -1 if missing; not copied
+     */
+    public TranslationInfo(String language, TranslationKeys keys, MappedStrings pool, int[] poolIndices) {
+        this(language, keys);
+        this.pool = pool;
+        this.poolIndices = poolIndices;
+        for (int index : poolIndices) {
+            if (index >= 0) {
+                size++;
+            }
+        }
+    }
+
     public String language() {
         return language;
     }
-    
+
+    /**
+     * Gets the dictionary of the key ids of this language.
+     */
+    public TranslationKeys keys() {
+        return keys;
+    }
+
     public void addTranslation(String key, String value) {
-        translations.put(key, value);
+        put(keys.intern(key), compact(value));
     }
-    
+
     /**
      * Merges translations from another TranslationInfo into this one.
      * Later values overwrite earlier ones (last wins).
@@ -43,36 +100,275 @@ public class TranslationInfo {
             throw new IllegalArgumentException(
                 "Cannot merge translations with different languages: " + this.language + " vs " + other.language);
         }
-        this.translations.putAll(other.translations);
+        // The values are copied by id, mapped to this dictionary if the other one differs
+        for (int id = 0; id < other.capacity(); id++) {
+            Object value = other.stored(id);
+            if (value != null) {
+                put(other.keys == keys ? id : keys.intern(other.keys.keyAt(id)), value instanceof String string ? compact(string) : value);
+            }
+        }
     }
-    
+
     /**
      * Merges all entries from a map into this TranslationInfo.
      * Later values overwrite earlier ones (last wins).
      */
     public void mergeAll(Map<String, String> entries) {
-        this.translations.putAll(entries);
+        entries.forEach(this::addTranslation);
     }
-    
+
     public @Nullable String getTranslation(String key) {
-        return translations.get(key);
+        return getTranslation(keys.idOf(key));
+    }
+
+    /**
+     * Gets a translation by the id of its key in {@link #keys()}.
+     * A Latin-1 value is expanded on each call, see {@link #getPattern(int)} for repeated lookups.
+     * @return the translation, or null if missing (or if the id is -1)
+     */
+    public @Nullable String getTranslation(int keyId) {
+        if (keyId < 0 || keyId >= capacity()) {
+            return null;
+        }
+        Object value = stored(keyId);
+        return value != null ? expand(value) : null;
+    }
+
+    /**
+     * Gets the compiled pattern of a translation, compiled on the first call for this key and cached.
+     * @return the pattern, or null if the translation is missing (or if the id is -1)
+     */
+    public @Nullable TranslationPattern getPattern(int keyId) {
+        int capacity = capacity();
+        if (keyId < 0 || keyId >= capacity) {
+            return null;
+        }
+
+        TranslationPattern[] patterns = this.patterns;
+        TranslationPattern pattern = patterns != null && patterns.length == capacity ? patterns[keyId] : null;
+        if (pattern != null) {
+            return pattern;
+        }
+        Object value = stored(keyId);
+        if (value == null) {
+            return null;
+        }
+
+        if (patterns == null || patterns.length != capacity) {
+            patterns = new TranslationPattern[capacity];
+            this.patterns = patterns;
+        }
+        // Patterns are immutable: a race only compiles the same pattern twice
+        pattern = TranslationPattern.compile(expand(value));
+        patterns[keyId] = pattern;
+        return pattern;
     }
-    
+
+    /**
+     * Gets a copy of the entries, in dictionary order.
+     */
     @Unmodifiable
     public Map<String, String> translations() {
+        Map<String, String> translations = LinkedHashMap.newLinkedHashMap(size);
+        for (int id = 0; id < capacity(); id++) {
+            Object value = stored(id);
+            if (value != null) {
+                translations.put(keys.keyAt(id), expand(value));
+            }
+        }
         return Collections.unmodifiableMap(translations);
     }
-    
+
     public boolean isEmpty() {
-        return translations.isEmpty();
+        return size == 0;
     }
-    
+
     public int size() {
-        return translations.size();
+        return size;
     }
-    
+
+    /**
+     * Computes a hash of the language and all its entries,
+     * to detect the languages that did not change between two reads of a pack.
+     * The entries are hashed regardless of their order, which depends on the dictionary of each read.
+     * The hash is computed on each call.
+     */
+    public long contentHash() {
+        long entries = 0;
+        for (int id = 0; id < capacity(); id++) {
+            Object value = stored(id);
+            if (value != null) {
+                entries += new ContentHasher().putString(keys.keyAt(id)).putString(expand(value)).hash();
+            }
+        }
+        return new ContentHasher()
+            .putString(language)
+            .putInt(size)
+            .putLong(entries)
+            .hash();
+    }
+
     @Override
     public String toString() {
-        return String.format("TranslationInfo{language='%s', count=%d}", language, translations.size());
+        return String.format("TranslationInfo{language='%s', count=%d}", language, size);
+    }
+
+    /**
+     * Drops the spare capacity left by the insertions, once this language is complete.
+     */
+    public void trimToSize() {
+        if (pool != null) {
+            int length = poolIndices.length;
+            while (length > 0 && poolIndices[length - 1] < 0) {
+                length--;
+            }
+            if (length < poolIndices.length) {
+                poolIndices = Arrays.copyOf(poolIndices, length);
+            }
+            return;
+        }
+        int length = values.length;
+        while (length > 0 && values[length - 1] == null) {
+            length--;
+        }
+        if (length < values.length) {
+            values = Arrays.copyOf(values, length);
+        }
+    }
+
+    /**
+     * Moves this language to another dictionary, mapping its values to the new ids.
+     * Only for a language that is not shared yet, see {@link #copyTo(TranslationKeys)} otherwise.
+     */
+    void moveTo(TranslationKeys dictionary) {
+        if (dictionary == keys) {
+            return;
+        }
+        patterns = null;
+        if (pool != null) {
+            poolIndices = remapIndices(dictionary);
+        } else {
+            Object[] oldValues = values;
+            TranslationKeys oldKeys = keys;
+            values = EMPTY;
+            size = 0;
+            for (int id = 0; id < oldValues.length; id++) {
+                if (oldValues[id] != null) {
+                    put(dictionary.intern(oldKeys.keyAt(id)), oldValues[id]);
+                }
+            }
+        }
+        keys = dictionary;
+    }
+
+    /**
+     * Gets this language with the ids of another dictionary: itself if it already uses it, else a copy
+     * sharing the stored values and the compiled patterns.
+     */
+    TranslationInfo copyTo(TranslationKeys dictionary) {
+        if (dictionary == keys) {
+            return this;
+        }
+        MappedStrings pool = this.pool;
+        TranslationInfo copy = pool != null
+            ? new TranslationInfo(language, dictionary, pool, remapIndices(dictionary))
+            : new TranslationInfo(language, dictionary);
+        TranslationPattern[] patterns = this.patterns;
+        TranslationPattern @Nullable [] copiedPatterns = null;
+        for (int id = 0; id < capacity(); id++) {
+            if (pool != null ? poolIndices[id] < 0 : values[id] == null) {
+                continue;
+            }
+            int newId = dictionary.intern(keys.keyAt(id));
+            if (pool == null) {
+                copy.put(newId, values[id]);
+            }
+            TranslationPattern pattern = patterns != null && id < patterns.length ? patterns[id] : null;
+            if (pattern != null) {
+                if (copiedPatterns == null || copiedPatterns.length <= newId) {
+                    copiedPatterns = Arrays.copyOf(copiedPatterns != null ? copiedPatterns : new TranslationPattern[0], newId + 1);
+                }
+                copiedPatterns[newId] = pattern;
+            }
+        }
+        copy.trimToSize();
+        if (copiedPatterns != null) {
+            copy.patterns = Arrays.copyOf(copiedPatterns, copy.capacity());
+        }
+        return copy;
+    }
+
+    // The pool indices by the ids of another dictionary
+    private int[] remapIndices(TranslationKeys dictionary) {
+        int[] remapped = NO_INDICES;
+        for (int id = 0; id < poolIndices.length; id++) {
+            if (poolIndices[id] < 0) {
+                continue;
+            }
+            int newId = dictionary.intern(keys.keyAt(id));
+            if (newId >= remapped.length) {
+                int oldLength = remapped.length;
+                remapped = Arrays.copyOf(remapped, Math.max(newId + 1, oldLength + (oldLength >> 1)));
+                Arrays.fill(remapped, oldLength, remapped.length, -1);
+            }
+            remapped[newId] = poolIndices[id];
+        }
+        return remapped;
+    }
+
+    private int capacity() {
+        return pool != null ? poolIndices.length : values.length;
+    }
+
+    // The stored value of an id: byte[] (Latin-1), String, or null if missing
+    private @Nullable Object stored(int id) {
+        MappedStrings pool = this.pool;
+        if (pool == null) {
+            return values[id];
+        }
+        int index = poolIndices[id];
+        return index >= 0 ? pool.get(index) : null;
+    }
+
+    // Copies the values read in place to the heap, before a modification
+    private void materialize() {
+        MappedStrings pool = this.pool;
+        if (pool == null) {
+            return;
+        }
+        Object[] materialized = new Object[poolIndices.length];
+        for (int id = 0; id < poolIndices.length; id++) {
+            if (poolIndices[id] >= 0) {
+                materialized[id] = compact(pool.get(poolIndices[id]));
+            }
+        }
+        values = materialized;
+        poolIndices = NO_INDICES;
+        this.pool = null;
+    }
+
+    private void put(int id, Object value) {
+        materialize();
+        if (id >= values.length) {
+            values = Arrays.copyOf(values, Math.max(id + 1, values.length + (values.length >> 1)));
+        }
+        if (values[id] == null) {
+            size++;
+        }
+        values[id] = value;
+        patterns = null;
+    }
+
+    private static Object compact(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return value;
+            }
+        }
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String expand(Object value) {
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.ISO_8859_1) : (String) value;
     }
 }
@@ -0,0 +1,71 @@
+package io.calinea.pack.translation;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of the translation keys of a pack, mapping each key to a dense int id.
+ * <p>
+ * The languages of a {@link TranslationsInfo} store their values in an array indexed by the ids of its dictionary,
+ * so a key string is kept once for every language, and a key is hashed once to be looked up in several languages
+ * (locale, then {@code en_us}).
+ * </p>
+ * <p>
+ * Each {@link TranslationsInfo} owns its dictionary, so it is dropped with the pack on reload instead of growing
+ * with every key ever read. Ids are never removed, so they stay valid for the languages loaded lazily later.
+ * Lookups are lock-free, adding a key is synchronized.
+ * </p>
+ */
+public final class TranslationKeys {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] keys = new String[1024];
+    private int size; // guarded by this
+
+    /**
+     * Gets the id of a key.
+     * @return the id, or -1 if no language of the pack has this key
+     */
+    public int idOf(String key) {
+        Integer id = ids.get(key);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the id of a key, adding it to the dictionary if needed.
+     */
+    public int intern(String key) {
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(key);
+            if (id != null) {
+                return id;
+            }
+            int newId = size;
+            if (newId == keys.length) {
+                keys = Arrays.copyOf(keys, newId * 2);
+            }
+            keys[newId] = key; // written before the id is published by the map
+            size++;
+            ids.put(key, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Gets the key of an id returned by this dictionary.
+     */
+    public String keyAt(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Returns the number of keys in the dictionary.
+     */
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,19 @@
+package io.calinea.pack.translation;
+
+import java.io.IOException;
+
+/**
+ * Loads the translations of a language that was not read with the rest of the pack,
+ * see {@link TranslationsInfo#addLazyTranslation(String, TranslationLoader)}.
+ */
+@FunctionalInterface
+public interface TranslationLoader {
+
+    /**
+     * Loads the translations of the language.
+     *
+     * @return the translations
+     * @throws IOException if the translations cannot be read anymore (e.g. the file changed)
+     */
+    TranslationInfo load() throws IOException;
+}
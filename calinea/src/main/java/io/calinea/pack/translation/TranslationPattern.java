@@ -0,0 +1,234 @@
+package io.calinea.pack.translation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A translation compiled into its literal segments and the indices of the arguments between them.
+ * For example: {@code "%2$s gave %1$s 100%%"} -> {@code ["", " gave ", " 100%"]} with arguments {@code [1, 0]}.
+ * <p>
+ * Follows the client format: {@code %s} takes the next argument, {@code %n$s} the n-th one (from 1),
+ * and {@code %%} is a percent sign. Like the client, a translation with any other {@code %} ({@code %d}, {@code 50% off},
+ * a trailing {@code %}) is entirely literal.
+ * </p>
+ * <p>
+ * Immutable, so a compiled pattern can be cached and shared between threads.
+ * </p>
+ */
+public final class TranslationPattern {
+
+    private final String pattern;
+    private final String[] literals; // one more than the arguments
+    private final int[] argumentIndices;
+    private final int requiredArguments;
+    private final String literalText;
+    private final int hash;
+
+    private TranslationPattern(String pattern, String[] literals, int[] argumentIndices) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.argumentIndices = argumentIndices;
+
+        int required = 0;
+        for (int index : argumentIndices) {
+            required = Math.max(required, index + 1);
+        }
+        this.requiredArguments = required;
+        this.literalText = String.join("", literals);
+        this.hash = 31 * Arrays.hashCode(literals) + Arrays.hashCode(argumentIndices);
+    }
+
+    /**
+     * Compiles a translation in the client format.
+     */
+    public static TranslationPattern compile(String translation) {
+        Builder builder = builder(translation);
+        StringBuilder literal = new StringBuilder();
+        int nextArgument = 0;
+        int length = translation.length();
+        int i = 0;
+        while (i < length) {
+            char c = translation.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            // Optional position: %n$
+            int position = -1;
+            int j = i + 1;
+            while (j < length && translation.charAt(j) >= '0' && translation.charAt(j) <= '9') {
+                j++;
+            }
+            if (j > i + 1 && j < length && translation.charAt(j) == '$') {
+                position = parsePosition(translation, i + 1, j);
+                if (position < 1) {
+                    return literalPattern(translation); // no such argument
+                }
+                j++;
+            } else {
+                j = i + 1;
+            }
+
+            if (j == length) {
+                return literalPattern(translation); // trailing %
+            }
+            char conversion = translation.charAt(j);
+            if (conversion == '%') {
+                literal.append('%');
+            } else if (conversion == 's') {
+                builder.literal(literal.toString()).argument(position != -1 ? position - 1 : nextArgument++);
+                literal.setLength(0);
+            } else {
+                return literalPattern(translation); // unsupported conversion, or not a conversion
+            }
+            i = j + 1;
+        }
+        return builder.literal(literal.toString()).build();
+    }
+
+    private static int parsePosition(String translation, int start, int end) {
+        try {
+            return Integer.parseInt(translation, start, end, 10);
+        } catch (NumberFormatException e) {
+            return -1; // too large
+        }
+    }
+
+    private static TranslationPattern literalPattern(String translation) {
+        return new TranslationPattern(translation, new String[] { translation }, new int[0]);
+    }
+
+    /**
+     * Creates a builder, to assemble a pattern from already split segments.
+     */
+    public static Builder builder() {
+        return new Builder(null);
+    }
+
+    private static Builder builder(String source) {
+        return new Builder(source);
+    }
+
+    /**
+     * Gets the translation this pattern was compiled from, or its equivalent in the client format if it was built.
+     */
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the number of placeholders (an argument used twice counts twice).
+     */
+    public int placeholderCount() {
+        return argumentIndices.length;
+    }
+
+    /**
+     * Gets the index (from 0) of the argument of a placeholder.
+     */
+    public int argumentIndex(int placeholder) {
+        return argumentIndices[placeholder];
+    }
+
+    /**
+     * Gets the literal before a placeholder, or after the last one for {@code index == placeholderCount()}.
+     */
+    public String literal(int index) {
+        return literals[index];
+    }
+
+    /**
+     * Returns the number of arguments needed to fill every placeholder (the highest index + 1).
+     */
+    public int requiredArguments() {
+        return requiredArguments;
+    }
+
+    /**
+     * Gets the text of the translation without its placeholders.
+     */
+    public String literalText() {
+        return literalText;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof TranslationPattern that
+            && hash == that.hash
+            && Arrays.equals(literals, that.literals)
+            && Arrays.equals(argumentIndices, that.argumentIndices);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TranslationPattern{pattern='%s', placeholders=%d}", pattern, argumentIndices.length);
+    }
+
+    /**
+     * Builder alternating literals and arguments, starting and ending with a literal (possibly empty).
+     * Consecutive literals are joined.
+     */
+    public static final class Builder {
+        private final @Nullable String source;
+        private final List<String> literals = new ArrayList<>();
+        private final List<Integer> argumentIndices = new ArrayList<>();
+        private final StringBuilder literal = new StringBuilder();
+
+        private Builder(@Nullable String source) {
+            this.source = source;
+        }
+
+        public Builder literal(String text) {
+            literal.append(text);
+            return this;
+        }
+
+        /**
+         * @param index the index of the argument, from 0
+         */
+        public Builder argument(int index) {
+            if (index < 0) {
+                throw new IllegalArgumentException("Argument index must not be negative: " + index);
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            argumentIndices.add(index);
+            return this;
+        }
+
+        public TranslationPattern build() {
+            String[] allLiterals = literals.toArray(new String[literals.size() + 1]);
+            allLiterals[literals.size()] = literal.toString();
+            int[] indices = argumentIndices.stream().mapToInt(Integer::intValue).toArray();
+            String pattern = source != null ? source : toClientFormat(allLiterals, indices);
+            return new TranslationPattern(pattern, allLiterals, indices);
+        }
+
+        private static String toClientFormat(String[] literals, int[] indices) {
+            boolean sequential = true;
+            for (int i = 0; i < indices.length; i++) {
+                sequential &= indices[i] == i;
+            }
+
+            StringBuilder pattern = new StringBuilder();
+            for (int i = 0; i < indices.length; i++) {
+                pattern.append(literals[i].replace("%", "%%"))
+                    .append(sequential ? "%s" : "%" + (indices[i] + 1) + "$s");
+            }
+            return pattern.append(literals[indices.length].replace("%", "%%")).toString();
+        }
+    }
+}
@@ -1,46 +1,123 @@
 package io.calinea.pack.translation;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.SequencedCollection;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import org.jetbrains.annotations.Unmodifiable;
 import org.jspecify.annotations.Nullable;
 
+import io.calinea.Calinea;
+
 /**
  * Container for all translation information across multiple languages.
  * Each language has its own {@link TranslationInfo} with merged translations
+ * <p>
+ * A language can also be lazy: it is only loaded the first time it is asked for, once even with concurrent lookups.
+ * Methods that return every language ({@link #getLanguages()}, {@link #totalEntryCount()}) load all of them.
+ * </p>
+ * <p>
+ * The languages share the {@link TranslationKeys dictionary} of this pack: a key id from {@link #keys()}
+ * can be looked up in any of them. A language added from elsewhere is moved to this dictionary.
+ * </p>
  */
 public class TranslationsInfo {
     
-    private final Map<String, TranslationInfo> languages;
+    private final Map<String, Language> languages;
+    private final TranslationKeys keys;
     
     public TranslationsInfo() {
+        this(new TranslationKeys());
+    }
+
+    // Shares the dictionary, for a copy whose lazy languages are shared
+    private TranslationsInfo(TranslationKeys keys) {
         this.languages = new LinkedHashMap<>();
+        this.keys = keys;
     }
     
     public TranslationsInfo(SequencedCollection<TranslationInfo> translations) {
-        this.languages = new LinkedHashMap<>();
-        for (TranslationInfo translation : translations) {
-            this.languages.put(translation.language(), translation);
-        }
+        this();
+        addAll(translations);
     }
     
     /**
      * Adds or merges a TranslationInfo for a language.
      * If the language already exists, the new translations are merged (later wins).
+     * The added language is moved to the {@link #keys() dictionary} of this pack, so it must not be used by another one.
      */
     public TranslationsInfo addTranslation(TranslationInfo translationInfo) {
         String lang = translationInfo.language();
-        TranslationInfo existing = languages.get(lang);
+        translationInfo.moveTo(keys);
+        Language existing = languages.get(lang);
         if (existing != null) {
-            existing.merge(translationInfo);
+            existing.get().merge(translationInfo);
         } else {
-            languages.put(lang, translationInfo);
+            languages.put(lang, new Language(translationInfo));
         }
         return this;
     }
+
+    /**
+     * Adds a language loaded on its first lookup.
+     * If the loading fails, the error is logged and the language is empty.
+     */
+    public TranslationsInfo addLazyTranslation(String language, TranslationLoader loader) {
+        languages.put(language, new Language(language, loader, keys));
+        return this;
+    }
+
+    /**
+     * Checks if a language is loaded (always true for the languages that are not lazy).
+     * @return true if the language is in memory, false if it is not loaded yet or not in this pack
+     */
+    public boolean isLoaded(String language) {
+        Language entry = languages.get(language);
+        return entry != null && entry.isLoaded();
+    }
+
+    /**
+     * Gets the names of all languages, without loading them.
+     */
+    @Unmodifiable
+    public Set<String> getLanguageNames() {
+        return Collections.unmodifiableSet(languages.keySet());
+    }
+
+    /**
+     * Gets the languages currently in memory, without loading the lazy ones.
+     */
+    @Unmodifiable
+    public Map<String, TranslationInfo> getLoadedLanguages() {
+        Map<String, TranslationInfo> loaded = new LinkedHashMap<>();
+        languages.forEach((name, language) -> {
+            if (language.isLoaded()) {
+                loaded.put(name, language.get());
+            }
+        });
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Creates a copy where each loaded language is replaced by the mapper result, lazy languages staying lazy.
+     */
+    public TranslationsInfo mapLoaded(UnaryOperator<TranslationInfo> mapper) {
+        TranslationsInfo copy = new TranslationsInfo(keys);
+        languages.forEach((name, language) -> {
+            // A lazy language is shared, it is loaded once for both
+            if (language.isLoaded()) {
+                // A language of another pack (reused from the previous one) is copied to the ids of this one
+                copy.languages.put(name, new Language(mapper.apply(language.get()).copyTo(keys)));
+            } else {
+                copy.languages.put(name, language);
+            }
+        });
+        return copy;
+    }
     
     /**
      * Adds all TranslationInfo entries, merging if languages already exist.
@@ -56,23 +133,51 @@ public class TranslationsInfo {
      * Gets the TranslationInfo for a specific language.
      */
     public @Nullable TranslationInfo getTranslation(String language) {
-        return languages.get(language);
+        Language entry = languages.get(language);
+        return entry != null ? entry.get() : null;
     }
     
     /**
-     * Gets all languages available.
+     * Gets all languages available, loading the lazy ones.
+     * @see #getLoadedLanguages()
      */
     @Unmodifiable
     public Map<String, TranslationInfo> getLanguages() {
-        return Collections.unmodifiableMap(languages);
+        Map<String, TranslationInfo> all = new LinkedHashMap<>();
+        languages.forEach((name, language) -> all.put(name, language.get()));
+        return Collections.unmodifiableMap(all);
+    }
+    
+    /**
+     * Gets the dictionary of the key ids of all the languages of this pack.
+     */
+    public TranslationKeys keys() {
+        return keys;
     }
     
     /**
      * Convenience method to get a translation for a specific key in a specific language.
      */
     public @Nullable String getTranslation(String language, String key) {
-        TranslationInfo info = languages.get(language);
-        return info != null ? info.getTranslation(key) : null;
+        return getTranslation(language, keys.idOf(key));
+    }
+
+    /**
+     * Gets a translation by the id of its key, to look a key up in several languages with a single hash.
+     * @see TranslationKeys#idOf(String)
+     */
+    public @Nullable String getTranslation(String language, int keyId) {
+        TranslationInfo info = getTranslation(language);
+        return info != null ? info.getTranslation(keyId) : null;
+    }
+
+    /**
+     * Gets the compiled pattern of a translation, cached by its language.
+     * @see TranslationInfo#getPattern(int)
+     */
+    public @Nullable TranslationPattern getPattern(String language, int keyId) {
+        TranslationInfo info = getTranslation(language);
+        return info != null ? info.getPattern(keyId) : null;
     }
     
     public boolean isEmpty() {
@@ -90,14 +195,76 @@ public class TranslationsInfo {
      * Returns the total number of translation entries across all languages.
      */
     public int totalEntryCount() {
-        return languages.values().stream()
+        return getLanguages().values().stream()
             .mapToInt(TranslationInfo::size)
             .sum();
     }
     
     @Override
     public String toString() {
-        return String.format("TranslationsInfo{languages=%d, totalEntries=%d}", 
-            languageCount(), totalEntryCount());
+        Map<String, TranslationInfo> loaded = getLoadedLanguages();
+        return String.format("TranslationsInfo{languages=%d, loaded=%d, loadedEntries=%d}", 
+            languageCount(), loaded.size(), loaded.values().stream().mapToInt(TranslationInfo::size).sum());
+    }
+
+    /**
+     * A language, loaded or not.
+     */
+    private static final class Language {
+        private final String name;
+        private volatile @Nullable TranslationInfo info;
+        private @Nullable TranslationLoader loader; // dropped once loaded
+        private @Nullable TranslationKeys keys; // of the pack, for the loaded keys
+
+        private Language(TranslationInfo info) {
+            info.trimToSize();
+            this.name = info.language();
+            this.info = info;
+        }
+
+        private Language(String name, TranslationLoader loader, TranslationKeys keys) {
+            this.name = name;
+            this.loader = loader;
+            this.keys = keys;
+        }
+
+        private boolean isLoaded() {
+            return info != null;
+        }
+
+        private TranslationInfo get() {
+            TranslationInfo result = info;
+            if (result != null) {
+                return result;
+            }
+            synchronized (this) {
+                result = info;
+                if (result == null) {
+                    result = load();
+                    TranslationKeys currentKeys = keys;
+                    if (currentKeys != null) {
+                        result.moveTo(currentKeys);
+                    }
+                    result.trimToSize();
+                    info = result;
+                    loader = null;
+                    keys = null;
+                }
+                return result;
+            }
+        }
+
+        private TranslationInfo load() {
+            TranslationLoader currentLoader = loader;
+            if (currentLoader == null) {
+                return new TranslationInfo(name);
+            }
+            try {
+                return currentLoader.load();
+            } catch (IOException | RuntimeException e) {
+                Calinea.logger().severe("Failed to load the translations of '" + name + "', the language is left empty", e);
+                return new TranslationInfo(name);
+            }
+        }
     }
 }
@@ -1,50 +1,85 @@
 package io.calinea.resolver.Client;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 import io.calinea.pack.PackInfo;
+import io.calinea.traversal.ComponentTraversal;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 
+/**
+ * Forces the resolution of the client-side components (translatable, keybind...) of a component tree.
+ * <p>
+ * The resolvers are fixed at construction: an instance is immutable and can be shared between threads.
+ * For each component, every resolver that can resolve it is applied, in order.
+ * </p>
+ */
 public class ForcedClientComponentResolver {
 
-    private static List<IClientComponentResolver<?>> clientResolvers;
+    private final List<IClientComponentResolver<?>> clientResolvers;
 
+    /**
+     * Creates a resolver with the default client resolvers, see {@link #defaultClientResolvers(PackInfo)}.
+     */
     public ForcedClientComponentResolver(PackInfo packInfo) {
+        this(defaultClientResolvers(packInfo));
+    }
+
+    /**
+     * Creates a resolver with the given client resolvers, applied in order.
+     */
+    public ForcedClientComponentResolver(List<? extends IClientComponentResolver<?>> clientResolvers) {
+        this.clientResolvers = List.copyOf(clientResolvers);
+    }
+
+    /**
+     * Creates the client resolvers used by default: translatable components, then keybind components.
+     */
+    public static List<IClientComponentResolver<?>> defaultClientResolvers(PackInfo packInfo) {
         TranslatableComponentResolver translatableResolver = new TranslatableComponentResolver(packInfo);
         KeyBindComponentResolver keyBindResolver = new KeyBindComponentResolver(translatableResolver);
-        
-        clientResolvers = List.of(
-            translatableResolver,
-            keyBindResolver
-        );
+
+        List<IClientComponentResolver<?>> resolvers = new ArrayList<>();
+        resolvers.add(translatableResolver);
+        resolvers.add(keyBindResolver);
+        return resolvers;
+    }
+
+    public List<IClientComponentResolver<?>> clientResolvers() {
+        return clientResolvers;
     }
 
+    /**
+     * Resolves the client-side components of a tree.
+     * <p>
+     * Subtrees without any component to resolve are shared, so a tree without client-side components
+     * is returned as is, without copying any component.
+     * The tree is walked by {@link ComponentTraversal}, so its depth is not limited by the thread stack.
+     * </p>
+     */
     public Component resolve(ComponentLike componentLike, Locale locale) {
         if (componentLike == Component.empty()) {
             return Component.empty();
         }
         
-        Component component = componentLike.asComponent();
+        return ComponentTraversal.transform(componentLike.asComponent(), component -> resolveRoot(component, locale));
+    }
 
-        // Resolve if client-side else skip
+    /**
+     * Resolves a component if client-side, without its children.
+     */
+    private Component resolveRoot(Component component, Locale locale) {
         for (IClientComponentResolver<?> resolver : clientResolvers) {
 
             if (resolver.canResolve(component)) {
-                // Resolve root
                 @SuppressWarnings("unchecked")
                 IClientComponentResolver<Component> typedResolver = (IClientComponentResolver<Component>) resolver;
                 component = typedResolver.resolve(component, locale);
             }
         }
-                
-        // Resolve children
-        List<Component> resolvedChildren = component.children().stream()
-            .map(child -> resolve(child, locale))
-            .toList();
-        
-        return component.children(resolvedChildren);
+        return component;
     }
 }
 
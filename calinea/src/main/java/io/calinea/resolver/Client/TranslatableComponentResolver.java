@@ -6,7 +6,7 @@ import org.jspecify.annotations.Nullable;
 
 import io.calinea.Calinea;
 import io.calinea.pack.PackInfo;
-import io.calinea.pack.translation.TranslationInfo;
+import io.calinea.pack.translation.TranslationPattern;
 import io.calinea.pack.translation.TranslationsInfo;
 import io.calinea.resolver.ComponentResolver;
 import io.calinea.utils.TranslatableComponentUtils;
@@ -44,16 +44,17 @@ public class TranslatableComponentResolver implements IClientComponentResolver<T
         String localeStr = locale.toString().toLowerCase();
         String key = component.key();
         TranslationsInfo translations = packInfo.translationsInfo();
+        int keyId = translations.keys().idOf(key); // hashed once for the whole fallback chain
         
         // Try locale first, then fallback to en_us
-        @Nullable String translation = tryResolve(translations, localeStr, key);
+        @Nullable TranslationPattern translation = translations.getPattern(localeStr, keyId);
         if (translation != null) {
             return buildComponent(component, translation);
         }
         
         // Locale missing or key not found - try en_us fallback
         boolean hasLocale = translations.getTranslation(localeStr) != null;
-        translation = tryResolve(translations, ComponentResolver.MINECRAFT_FALLBACK_LOCAL, key);
+        translation = translations.getPattern(ComponentResolver.MINECRAFT_FALLBACK_LOCAL, keyId);
         
         if (translation != null) {
             warnMissingButFallbackFound(localeStr, key, hasLocale);
@@ -66,18 +67,9 @@ public class TranslatableComponentResolver implements IClientComponentResolver<T
     }
     
     /**
-     * Tries to resolve a translation key in a specific locale.
-     * @return the translation string, or null if not found
+     * Builds a Component from a compiled translation pattern and the original component's arguments/style.
      */
-    private @Nullable String tryResolve(TranslationsInfo translations, String localeStr, String key) {
-        TranslationInfo info = translations.getTranslation(localeStr);
-        return info != null ? info.getTranslation(key) : null;
-    }
-    
-    /**
-     * Builds a Component from a translation pattern and the original component's arguments/style.
-     */
-    private Component buildComponent(TranslatableComponent original, String translation) {
+    private Component buildComponent(TranslatableComponent original, TranslationPattern translation) {
         return TranslatableComponentUtils.buildFromPattern(original, translation);
     }
     
@@ -12,14 +12,36 @@ import io.calinea.resolver.Server.ServerComponentResolver;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 
+/**
+ * Resolves the server-side components of a tree, then forces the resolution of its client-side components
+ * in the locale of the context.
+ * <p>
+ * The resolver chain is built once: an instance is immutable and can be shared between threads,
+ * the default one is built with each {@link io.calinea.layout.LayoutContext}.
+ * </p>
+ */
 public class ComponentResolver implements IComponentResolver{
 
     public static final String MINECRAFT_FALLBACK_LOCAL = "en_US".toLowerCase();
+    private static final Locale FALLBACK_LOCALE = Locale.of(MINECRAFT_FALLBACK_LOCAL);
 
-    private final PackInfo packInfo;
+    private final ServerComponentResolver serverResolver;
+    private final ForcedClientComponentResolver forcedClientResolver;
 
     public ComponentResolver(PackInfo packInfo) {
-        this.packInfo = packInfo;
+        this(new ForcedClientComponentResolver(packInfo));
+    }
+
+    /**
+     * @param forcedClientResolver the resolver of the client-side components, with its own client resolvers
+     */
+    public ComponentResolver(ForcedClientComponentResolver forcedClientResolver) {
+        this.serverResolver = new ServerComponentResolver();
+        this.forcedClientResolver = forcedClientResolver;
+    }
+
+    public ForcedClientComponentResolver forcedClientResolver() {
+        return forcedClientResolver;
     }
     
     public Component resolve(ComponentLike componentLike, CommandSender context, Entity scoreboardSubject) {
@@ -27,7 +49,6 @@ public class ComponentResolver implements IComponentResolver{
         Component component = componentLike.asComponent();
         
         // Resolve server-side components
-        ServerComponentResolver serverResolver = new ServerComponentResolver();
         component = serverResolver.resolve(component, context, scoreboardSubject);
         
         // Force resolution of client-side components
@@ -36,10 +57,9 @@ public class ComponentResolver implements IComponentResolver{
         if (context instanceof Player player) {
             locale = player.locale();
         } else {
-            locale = Locale.of(MINECRAFT_FALLBACK_LOCAL);
+            locale = FALLBACK_LOCALE;
         }
 
-        ForcedClientComponentResolver forcedClientResolver = new ForcedClientComponentResolver(packInfo);
         component = forcedClientResolver.resolve(component, locale);
 
         return component;
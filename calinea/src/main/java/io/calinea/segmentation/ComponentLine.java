@@ -1,5 +1,6 @@
 package io.calinea.segmentation;
 
+import io.calinea.pack.font.FixedWidth;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 
@@ -7,10 +8,19 @@ public class ComponentLine implements ComponentLike {
 
     private final Component component;
     private final Double width;
+    private final long units;
 
     public ComponentLine(Component component, double width) {
+        this(component, width, FixedWidth.toUnits(width));
+    }
+
+    /**
+     * @param units the width in {@link FixedWidth} units, exact when the line was summed in units
+     */
+    public ComponentLine(Component component, double width, long units) {
         this.component = component;
         this.width = width;
+        this.units = units;
     }
 
     public Component component() {
@@ -21,6 +31,13 @@ public class ComponentLine implements ComponentLike {
         return width;
     }
 
+    /**
+     * Gets the width in {@link FixedWidth} units.
+     */
+    public long units() {
+        return units;
+    }
+
     @Override
     public Component asComponent() {
         return component();
@@ -8,6 +8,7 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.Style;
 
+import io.calinea.pack.font.FixedWidth;
 import io.calinea.segmentation.measurer.IComponentMeasurer;
 
 public class SegmentationState {
@@ -21,12 +22,23 @@ public class SegmentationState {
     private final List<Component> currentLineComponents = new ArrayList<>();
     /** The current width of the pointed component **/
     private double currentLineWidth = 0;
+    /** The current width in {@link FixedWidth} units, only used in fixed-point mode **/
+    private long currentLineUnits = 0;
+    private final boolean fixedPointWidths;
 
     // Buffer for merging consecutive text components with the same style
     private final StringBuilder pendingText = new StringBuilder();
     private Style pendingStyle = null;
 
     public SegmentationState() {
+        this(false);
+    }
+
+    /**
+     * @param fixedPointWidths whether the line width is accumulated as {@link FixedWidth} units instead of doubles
+     */
+    public SegmentationState(boolean fixedPointWidths) {
+        this.fixedPointWidths = fixedPointWidths;
         // Start with empty style
         styleStack.push(Style.empty());
     }
@@ -50,25 +62,42 @@ public class SegmentationState {
     }
 
     public void append(Component component, double width) {
+        append(component, width, fixedPointWidths ? FixedWidth.toUnits(width) : 0);
+    }
+
+    /**
+     * Appends a component measured in both modes.
+     * @param units the width in {@link FixedWidth} units, only used in fixed-point mode
+     */
+    public void append(Component component, double width, long units) {
         // Try to merge if it is a simple TextComponent
         if (component instanceof TextComponent textComponent && textComponent.children().isEmpty()) {
             Style style = textComponent.style();
             if (pendingStyle != null && pendingStyle.equals(style)) {
                 pendingText.append(textComponent.content());
-                currentLineWidth += width;
+                addWidth(width, units);
                 return;
             } else {
                 flushPending();
                 pendingStyle = style;
                 pendingText.append(textComponent.content());
-                currentLineWidth += width;
+                addWidth(width, units);
                 return;
             }
         }
 
         flushPending();
         currentLineComponents.add(component);
-        currentLineWidth += width;
+        addWidth(width, units);
+    }
+
+    private void addWidth(double width, long units) {
+        if (fixedPointWidths) {
+            currentLineUnits += units;
+            currentLineWidth = FixedWidth.toPixels(currentLineUnits);
+        } else {
+            currentLineWidth += width;
+        }
     }
 
     private void flushPending() {
@@ -83,15 +112,40 @@ public class SegmentationState {
 
     public void newLine() {
         flushPending();
-        splittedComponents.add(new ComponentLine(buildLineComponent(), currentLineWidth));
+        splittedComponents.add(new ComponentLine(buildLineComponent(), currentLineWidth, lineUnits()));
         currentLineComponents.clear();
         currentLineWidth = 0;
+        currentLineUnits = 0;
     }
 
     public double currentWidth() {
         return currentLineWidth;
     }
 
+    // Exact in fixed-point mode, converted otherwise
+    private long lineUnits() {
+        return fixedPointWidths ? currentLineUnits : FixedWidth.toUnits(currentLineWidth);
+    }
+
+    /**
+     * Checks if a component of the given width fits on the current line.
+     * In fixed-point mode the comparison is done on integer units, so it is not affected by accumulated rounding.
+     */
+    public boolean fits(double width, double maxWidth) {
+        return fits(width, fixedPointWidths ? FixedWidth.toUnits(width) : 0, maxWidth);
+    }
+
+    /**
+     * Same as {@link #fits(double, double)} for a component measured in both modes.
+     * @param units the width in {@link FixedWidth} units, only used in fixed-point mode
+     */
+    public boolean fits(double width, long units, double maxWidth) {
+        if (fixedPointWidths) {
+            return currentLineUnits + units <= FixedWidth.toUnits(maxWidth);
+        }
+        return currentLineWidth + width <= maxWidth;
+    }
+
     public void trimTrailingSpace(IComponentMeasurer measurer) {
         // 1. Check pendingText
         if (pendingText.length() > 0) {
@@ -99,8 +153,7 @@ public class SegmentationState {
                 pendingText.deleteCharAt(pendingText.length() - 1);
                 
                 Style style = pendingStyle != null ? pendingStyle : Style.empty();
-                double spaceWidth = measurer.measureText(" ", style);
-                currentLineWidth -= spaceWidth;
+                removeSpaceWidth(measurer, style);
                 
                 // Recursively check again
                 trimTrailingSpace(measurer);
@@ -117,8 +170,7 @@ public class SegmentationState {
                     currentLineComponents.remove(lastIndex);
                     
                     // Measure space width
-                    double spaceWidth = measurer.measureText(" ", tc.style());
-                    currentLineWidth -= spaceWidth;
+                    removeSpaceWidth(measurer, tc.style());
                     
                     // Update content
                     String newContent = content.substring(0, content.length() - 1);
@@ -134,10 +186,18 @@ public class SegmentationState {
         }
     }
 
+    private void removeSpaceWidth(IComponentMeasurer measurer, Style style) {
+        if (fixedPointWidths) {
+            addWidth(0, -measurer.measureTextUnits(" ", style));
+        } else {
+            addWidth(-measurer.measureText(" ", style), 0);
+        }
+    }
+
     public List<ComponentLine> finish() {
         flushPending();
         if (currentLineWidth > 0 || splittedComponents.isEmpty()) {
-            splittedComponents.add(new ComponentLine(buildLineComponent(), currentLineWidth));
+            splittedComponents.add(new ComponentLine(buildLineComponent(), currentLineWidth, lineUnits()));
         }
         return splittedComponents;
     }
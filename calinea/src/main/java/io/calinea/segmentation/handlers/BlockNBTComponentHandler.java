@@ -36,6 +36,11 @@ public class BlockNBTComponentHandler implements IComponentLayoutHandler<BlockNB
         return 0;
     }
 
+    @Override
+    public double measureRoot(BlockNBTComponent component, boolean bold) {
+        return measureRoot(component); // the style does not change the width
+    }
+
     @Override
     public boolean isAtomic() {
         return true;
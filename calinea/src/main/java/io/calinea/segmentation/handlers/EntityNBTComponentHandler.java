@@ -36,6 +36,11 @@ public class EntityNBTComponentHandler implements IComponentLayoutHandler<Entity
         return 0;
     }
 
+    @Override
+    public double measureRoot(EntityNBTComponent component, boolean bold) {
+        return measureRoot(component); // the style does not change the width
+    }
+
     @Override
     public boolean isAtomic() {
         return true;
@@ -1,7 +1,9 @@
 package io.calinea.segmentation.handlers;
 
+import io.calinea.pack.font.FixedWidth;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.TextDecoration;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -14,9 +16,39 @@ public interface IComponentLayoutHandler<C extends Component> {
      * Measures the root width of the given component, excluding its children.
      */
     double measureRoot(C component);
+
+    /**
+     * Measures the root width of the given component, excluding its children, with its effective bold flag
+     * (its own, or the one inherited from its parents).
+     * <p>
+     * The measurer calls this method rather than rebuilding each component with its inherited style.
+     * The default implementation only rebuilds the component when the flag differs from its own,
+     * handlers should override it to measure without any copy.
+     * </p>
+     */
+    default double measureRoot(C component, boolean bold) {
+        if (component.style().hasDecoration(TextDecoration.BOLD) == bold) {
+            return measureRoot(component);
+        }
+        @SuppressWarnings("unchecked")
+        C styled = (C) component.decoration(TextDecoration.BOLD, bold);
+        return measureRoot(styled);
+    }
+
+    /**
+     * Measures the root width of the given component in {@link FixedWidth} units, with its effective bold flag.
+     * <p>
+     * Called instead of {@link #measureRoot(Component, boolean)} in fixed-point mode. The default converts the width,
+     * handlers summing several widths (glyphs, arguments) should override it to sum their units instead.
+     * </p>
+     */
+    default long measureRootUnits(C component, boolean bold) {
+        return FixedWidth.toUnits(measureRoot(component, bold));
+    }
     
     /**
      * Checks if this handler can handle the given component type.
+     * The result must only depend on the class of the component: it is cached per class by the measurer.
      */
     boolean canHandle(Component component);
 
@@ -1,8 +1,8 @@
 package io.calinea.segmentation.handlers;
 
 import io.calinea.Calinea;
+import io.calinea.pack.font.FixedWidth;
 import io.calinea.segmentation.measurer.ComponentMeasurerConfig;
-import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.KeybindComponent;
@@ -17,9 +17,11 @@ import net.kyori.adventure.text.format.TextDecoration;
  */
 public class KeybindComponentHandler implements IComponentLayoutHandler<KeybindComponent>{
     ComponentMeasurerConfig config;
+    private final TextComponentHandler textMeasurer;
 
     public KeybindComponentHandler(ComponentMeasurerConfig config) {
         this.config = config;
+        this.textMeasurer = new TextComponentHandler(config);
     }
 
     @Override
@@ -29,15 +31,27 @@ public class KeybindComponentHandler implements IComponentLayoutHandler<KeybindC
 
     @Override
     public double measureRoot(KeybindComponent component) {
-        TextComponent textComponent = asTextComponent(component);
-        String identifier = textComponent.content();
-        Key fontKey = textComponent.font();
-        boolean isBold = textComponent.style().hasDecoration(TextDecoration.BOLD);
+        return measureRoot(component, component.style().hasDecoration(TextDecoration.BOLD));
+    }
 
-        TextComponentHandler textMeasurer = new TextComponentHandler(config);
-        Double width = textMeasurer.measureTextWidth(identifier, fontKey, isBold);
+    @Override
+    public double measureRoot(KeybindComponent component, boolean bold) {
+        // Measured as the text of asTextComponent, without building it
+        String identifier = component.keybind();
+        double width = textMeasurer.measureTextWidth(identifier, component.font(), bold);
+        warnIfUnforcedComponent(identifier, width);
+        return width;
+    }
 
-        
+    @Override
+    public long measureRootUnits(KeybindComponent component, boolean bold) {
+        String identifier = component.keybind();
+        long units = textMeasurer.measureTextUnits(identifier, component.font(), bold);
+        warnIfUnforcedComponent(identifier, FixedWidth.toPixels(units));
+        return units;
+    }
+
+    private void warnIfUnforcedComponent(String identifier, double width) {
         // Warn that an unresolved KeybindComponent is being measured
         if (Calinea.config().warnOnUnforcedClientComponents()) {
             Calinea.logger().warning(String.format(
@@ -48,8 +62,6 @@ public class KeybindComponentHandler implements IComponentLayoutHandler<KeybindC
                 "This likely indicates the component wasn't forced before using the %s API.",
                 identifier, width, Calinea.LIBRARY_NAME));
         }
-
-        return width;
     }
 
     @Override
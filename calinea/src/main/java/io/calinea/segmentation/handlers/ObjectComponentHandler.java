@@ -31,6 +31,11 @@ public class ObjectComponentHandler implements IComponentLayoutHandler<ObjectCom
         return 8;
     }
 
+    @Override
+    public double measureRoot(ObjectComponent component, boolean bold) {
+        return measureRoot(component); // the style does not change the width
+    }
+
     @Override
     public boolean isAtomic() {
         return true;
@@ -36,6 +36,11 @@ public class ScoreComponentHandler implements IComponentLayoutHandler<ScoreCompo
         return 0;
     }
 
+    @Override
+    public double measureRoot(ScoreComponent component, boolean bold) {
+        return measureRoot(component); // the style does not change the width
+    }
+
     @Override
     public boolean isAtomic() {
         return true;
@@ -1,8 +1,8 @@
 package io.calinea.segmentation.handlers;
 
 import io.calinea.Calinea;
+import io.calinea.pack.font.FixedWidth;
 import io.calinea.segmentation.measurer.ComponentMeasurerConfig;
-import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.SelectorComponent;
 import net.kyori.adventure.text.TextComponent;
@@ -16,9 +16,11 @@ import net.kyori.adventure.text.format.TextDecoration;
  */
 public class SelectorComponentHandler implements IComponentLayoutHandler<SelectorComponent>{
     ComponentMeasurerConfig config;
+    private final TextComponentHandler textMeasurer;
 
     public SelectorComponentHandler(ComponentMeasurerConfig config) {
         this.config = config;
+        this.textMeasurer = new TextComponentHandler(config);
     }
 
     @Override
@@ -28,15 +30,27 @@ public class SelectorComponentHandler implements IComponentLayoutHandler<Selecto
 
     @Override
     public double measureRoot(SelectorComponent component) {
-        // Use asTextComponent to get the text representation
-        TextComponent textComponent = asTextComponent(component);
-        String content = textComponent.content();
-        Key fontKey = textComponent.font();
-        boolean isBold = textComponent.style().hasDecoration(TextDecoration.BOLD);
+        return measureRoot(component, component.style().hasDecoration(TextDecoration.BOLD));
+    }
 
-        TextComponentHandler textMeasurer = new TextComponentHandler(config);
-        Double width = textMeasurer.measureTextWidth(content, fontKey, isBold);
+    @Override
+    public double measureRoot(SelectorComponent component, boolean bold) {
+        // Measured as the text of asTextComponent, without building it
+        String content = component.pattern();
+        double width = textMeasurer.measureTextWidth(content, component.font(), bold);
+        warnIfUnresolvedComponent(content, width);
+        return width;
+    }
 
+    @Override
+    public long measureRootUnits(SelectorComponent component, boolean bold) {
+        String content = component.pattern();
+        long units = textMeasurer.measureTextUnits(content, component.font(), bold);
+        warnIfUnresolvedComponent(content, FixedWidth.toPixels(units));
+        return units;
+    }
+
+    private void warnIfUnresolvedComponent(String content, double width) {
         // Warn that an unresolved SelectorComponent is being measured
         if (Calinea.config().warnOnUnresolvedServerComponents()) {
             Calinea.logger().warning(String.format(
@@ -46,8 +60,6 @@ public class SelectorComponentHandler implements IComponentLayoutHandler<Selecto
                 "This may indicate that the component was not properly resolved before using the %s API.",
                 content, width, Calinea.LIBRARY_NAME));
         }
-
-        return width;
     }
 
     @Override
@@ -36,6 +36,11 @@ public class StorageNBTComponentHandler implements IComponentLayoutHandler<Stora
         return 0;
     }
 
+    @Override
+    public double measureRoot(StorageNBTComponent component, boolean bold) {
+        return measureRoot(component); // the style does not change the width
+    }
+
     @Override
     public boolean isAtomic() {
         return true;
@@ -2,8 +2,11 @@ package io.calinea.segmentation.handlers;
 
 import org.jspecify.annotations.Nullable;
 
-import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.font.FixedWidth;
+import io.calinea.pack.font.FontFace;
 import io.calinea.segmentation.measurer.ComponentMeasurerConfig;
+import io.calinea.segmentation.measurer.TextWidthKey;
+import io.calinea.utils.FrequencyCache;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
@@ -24,14 +27,25 @@ public class TextComponentHandler implements IComponentLayoutHandler<TextCompone
 
     @Override
     public double measureRoot(TextComponent component) {
+        return measureRoot(component, component.style().hasDecoration(TextDecoration.BOLD));
+    }
+
+    @Override
+    public double measureRoot(TextComponent component, boolean bold) {
         if (component == Component.empty() || component.content().isEmpty()) return 0;
         if (component == Component.newline() || component.content().equals("\n")) return 0;
 
-        String text = component.content();
-        Key fontKey = component.font();
-        boolean isBold = component.style().hasDecoration(TextDecoration.BOLD);
+        // Looked up once for the whole content
+        FontFace face = getFace(component.font(), bold);
+        return measureTextWidth(component.content(), face);
+    }
+
+    @Override
+    public long measureRootUnits(TextComponent component, boolean bold) {
+        if (component == Component.empty() || component.content().isEmpty()) return 0;
+        if (component == Component.newline() || component.content().equals("\n")) return 0;
 
-        return measureTextWidth(text, fontKey, isBold);
+        return measureTextUnits(component.content(), getFace(component.font(), bold));
     }
 
     @Override
@@ -56,45 +70,112 @@ public class TextComponentHandler implements IComponentLayoutHandler<TextCompone
         if (text.isEmpty()) {
             return 0;
         }
+        return measureTextWidth(text, getFace(fontKey, isBold));
+    }
 
-        if (fontKey == null) {
-            fontKey = Style.DEFAULT_FONT;
+    /**
+     * Measures the pixel width of plain text with an already looked up face.
+     * @param text the text to measure
+     * @param face the font face (font and bold flag)
+     * @return width in pixels
+     */
+    public double measureTextWidth(String text, FontFace face) {
+        if (config.fixedPointWidths()) {
+            return FixedWidth.toPixels(measureTextUnits(text, face));
+        }
+
+        FrequencyCache<TextWidthKey, Double> widthCache = config.getWidthCache();
+        if (widthCache != null) {
+            return widthCache.get(new TextWidthKey(face, text), key -> computeTextWidth(key.text(), key.face()));
         }
-        
+        return computeTextWidth(text, face);
+    }
+
+    private double computeTextWidth(String text, FontFace face) {
+        // Fast path: most text is Latin-1, summed from the dense table of the face
+        double latin1Width = face.measureLatin1(text);
+        if (!Double.isNaN(latin1Width)) {
+            return latin1Width;
+        }
+
         double totalWidth = 0;
 
         // A string may contain Unicode codepoints beyond BMP, so character can use multiple indexes, so we need to iterate by codepoints
-        int codepointLength = text.codePointCount(0, text.length());
-        for (int codepointOffset = 0; codepointOffset < codepointLength; codepointOffset++) {
-            int index = text.offsetByCodePoints(0, codepointOffset);
+        for (int index = 0; index < text.length(); ) {
             int codepoint = text.codePointAt(index);
+            index += Character.charCount(codepoint);
 
             if (codepoint == '\n') {
                 continue; // Newline has no width
             }
 
-            totalWidth += measureCodepointWidth(codepoint, fontKey, isBold);
+            // Bold offset is already part of the face widths
+            totalWidth += face.getWidth(codepoint);
         }
 
         return totalWidth;
     }
 
     /**
-     * Gets the width of a character in a specific font, accounting for bold style.
-     * 
-     * @param codepoint the character codepoint
-     * @param fontKey the font key
-     * @param isBold whether the character is bold
-     * @return width in pixels
+     * Measures the width of plain text in {@link FixedWidth} units.
+     * Every glyph is converted to units before being summed, so the total is exact.
+     * @param text the text to measure
+     * @param fontKey the font key or {@link Style#DEFAULT_FONT} if null
+     * @param isBold whether the text is bold
+     * @return width in units
+     */
+    public long measureTextUnits(String text, @Nullable Key fontKey, boolean isBold) {
+        return measureTextUnits(text, getFace(fontKey, isBold));
+    }
+
+    /**
+     * Measures the width of plain text in {@link FixedWidth} units with an already looked up face.
+     * @param text the text to measure
+     * @param face the font face (font and bold flag)
+     * @return width in units
      */
-    private double measureCodepointWidth(int codepoint, Key fontKey, boolean isBold) {
-        FontsInfo fontsInfo = config.getPackInfo().fontsInfo();
-        double width = fontsInfo.getWidth(fontKey, codepoint);
-        if (isBold) {
-            width += 1; // Bold duplicates the glyph 1px to the right, increasing width by 1px
+    public long measureTextUnits(String text, FontFace face) {
+        if (text.isEmpty()) {
+            return 0;
+        }
+
+        FrequencyCache<TextWidthKey, Long> unitsCache = config.getUnitsCache();
+        if (unitsCache != null) {
+            return unitsCache.get(new TextWidthKey(face, text), key -> computeTextUnits(key.text(), key.face()));
+        }
+        return computeTextUnits(text, face);
+    }
+
+    private long computeTextUnits(String text, FontFace face) {
+        long latin1Units = face.measureLatin1Units(text);
+        if (latin1Units != FontFace.NO_UNITS) {
+            return latin1Units;
         }
 
-        // Some types of characters have the 1px spacing baked into the font width by the generator.
-        return width;
+        long totalUnits = 0;
+        for (int index = 0; index < text.length(); ) {
+            int codepoint = text.codePointAt(index);
+            index += Character.charCount(codepoint);
+
+            if (codepoint == '\n') {
+                continue; // Newline has no width
+            }
+
+            totalUnits += face.getWidthUnits(codepoint);
+        }
+
+        return totalUnits;
+    }
+
+    /**
+     * Gets the interned face of a font.
+     * @param fontKey the font key or {@link Style#DEFAULT_FONT} if null
+     * @param isBold whether the text is bold
+     */
+    public FontFace getFace(@Nullable Key fontKey, boolean isBold) {
+        if (fontKey == null) {
+            fontKey = Style.DEFAULT_FONT;
+        }
+        return config.getPackInfo().fontsInfo().getFace(fontKey, isBold);
     }
 }
@@ -2,16 +2,23 @@ package io.calinea.segmentation.handlers;
 
 import java.util.List;
 
+import org.jspecify.annotations.Nullable;
+
 import io.calinea.Calinea;
+import io.calinea.pack.font.FixedWidth;
+import io.calinea.pack.font.FontFace;
+import io.calinea.pack.translation.TranslationPattern;
 import io.calinea.segmentation.measurer.ComponentMeasurer;
 import io.calinea.segmentation.measurer.ComponentMeasurerConfig;
+import io.calinea.segmentation.measurer.IComponentMeasurer;
+import io.calinea.segmentation.measurer.TranslationWidthKey;
+import io.calinea.utils.FrequencyCache;
 import io.calinea.utils.TranslatableComponentUtils;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.TranslationArgument;
-import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextDecoration;
 
 /**
@@ -26,22 +33,30 @@ import net.kyori.adventure.text.format.TextDecoration;
  */
 public class TranslatableComponentHandler implements IComponentLayoutHandler<TranslatableComponent>{
     ComponentMeasurerConfig config;
+    private final TextComponentHandler textMeasurer;
+    private volatile @Nullable IComponentMeasurer argumentMeasurer; // built on first use if not given
 
     public final static String PLACEHOLDER = "%s";
     public final static Component DUMMY_PLACEHOLDER_COMPONENT = Component.text(PLACEHOLDER);
-    private final static List<TranslationArgument> DUMMY_ARGUMENTS = List.of(
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT)
-    );
 
+    /**
+     * Creates a handler measuring the arguments with a {@link ComponentMeasurer} of the config, built on first use.
+     *
+     * @param config the measuring config
+     */
     public TranslatableComponentHandler(ComponentMeasurerConfig config) {
         this.config = config;
+        this.textMeasurer = new TextComponentHandler(config);
+    }
+
+    /**
+     * @param config the measuring config
+     * @param argumentMeasurer the measurer of the arguments, usually the one this handler belongs to
+     */
+    public TranslatableComponentHandler(ComponentMeasurerConfig config, IComponentMeasurer argumentMeasurer) {
+        this.config = config;
+        this.textMeasurer = new TextComponentHandler(config);
+        this.argumentMeasurer = argumentMeasurer;
     }
 
     @Override
@@ -51,23 +66,37 @@ public class TranslatableComponentHandler implements IComponentLayoutHandler<Tra
 
     @Override
     public double measureRoot(TranslatableComponent component) {
+        return measureRoot(component, component.style().hasDecoration(TextDecoration.BOLD));
+    }
+
+    @Override
+    public double measureRoot(TranslatableComponent component, boolean bold) {
         String identifier = component.key();
         Key fontKey = component.font();
-        Style parentStyle = component.style();
 
-        String translation = TranslatableComponentUtils.extractEnglishTranslation(component);
-        int placeholderCount = TranslatableComponentUtils.countPlaceholders(translation);
+        TranslationPattern pattern = TranslatableComponentUtils.extractEnglishPattern(component, config.getEnglishPatternCache());
         
-        double clearedWidth = measureCleanTranslation(translation, fontKey, parentStyle);
-        double totalArgsWidth = measureArguments(component, placeholderCount, parentStyle);
+        double clearedWidth = measureCleanTranslation(pattern, fontKey, bold);
+        double totalArgsWidth = measureArguments(component, pattern, bold);
         
         double width = clearedWidth + totalArgsWidth;
 
-        warnIfUnforcedComponent(identifier, translation, width);
+        warnIfUnforcedComponent(identifier, pattern.pattern(), width);
 
         return width;
     }
 
+    @Override
+    public long measureRootUnits(TranslatableComponent component, boolean bold) {
+        TranslationPattern pattern = TranslatableComponentUtils.extractEnglishPattern(component, config.getEnglishPatternCache());
+
+        long units = measureCleanTranslationUnits(pattern, component.font(), bold) + measureArgumentsUnits(component, pattern, bold);
+
+        warnIfUnforcedComponent(component.key(), pattern.pattern(), FixedWidth.toPixels(units));
+
+        return units;
+    }
+
     @Override
     public boolean isAtomic() {
         return false;
@@ -75,48 +104,85 @@ public class TranslatableComponentHandler implements IComponentLayoutHandler<Tra
 
     @Override
     public TextComponent asTextComponent(TranslatableComponent component) {
-        return TranslatableComponentUtils.flattenInEnglish(component);
+        return TranslatableComponentUtils.buildFromPattern(component,
+            TranslatableComponentUtils.extractEnglishPattern(component, config.getEnglishPatternCache()));
     }
 
     //     return placeholderCount;
     // }
     
-    private double measureCleanTranslation(String translation, Key fontKey, Style parentStyle) {
-        String cleanTranslation = translation.replace(PLACEHOLDER, ""); // remove placeholders for clean measurement
-        
-        TextComponentHandler textMeasurer = new TextComponentHandler(config);
-        return textMeasurer.measureTextWidth(cleanTranslation, fontKey, parentStyle.hasDecoration(TextDecoration.BOLD));
+    private double measureCleanTranslation(TranslationPattern pattern, @Nullable Key fontKey, boolean bold) {
+        FontFace face = textMeasurer.getFace(fontKey, bold);
+
+        // Only the arguments change between two messages of the same key, the literal width is cached
+        FrequencyCache<TranslationWidthKey, Double> translationWidthCache = config.getTranslationWidthCache();
+        if (translationWidthCache != null) {
+            return translationWidthCache.get(new TranslationWidthKey(face, pattern),
+                key -> textMeasurer.measureTextWidth(key.pattern().literalText(), key.face()));
+        }
+        return textMeasurer.measureTextWidth(pattern.literalText(), face);
+    }
+
+    private long measureCleanTranslationUnits(TranslationPattern pattern, @Nullable Key fontKey, boolean bold) {
+        FontFace face = textMeasurer.getFace(fontKey, bold);
+
+        FrequencyCache<TranslationWidthKey, Long> translationUnitsCache = config.getTranslationUnitsCache();
+        if (translationUnitsCache != null) {
+            return translationUnitsCache.get(new TranslationWidthKey(face, pattern),
+                key -> textMeasurer.measureTextUnits(key.pattern().literalText(), key.face()));
+        }
+        return textMeasurer.measureTextUnits(pattern.literalText(), face);
     }
     
-    private double measureArguments(TranslatableComponent component, int placeholderCount, Style parentStyle) {
-        // Also get the width of each argument
-        double[] totalArgsWidthArray = new double[]{0.0};
-        List<TranslationArgument> args = adjustArgumentsList(component.arguments(), placeholderCount);
-        
-        args.forEach(arg -> {
-            Component componentArgument = arg.asComponent();
-            
-            ComponentMeasurer measurer = new ComponentMeasurer(config);
-            double argumentWidth = measurer.measure(componentArgument, parentStyle);
-            
-            totalArgsWidthArray[0] += argumentWidth;
-        });
+    private double measureArguments(TranslatableComponent component, TranslationPattern pattern, boolean bold) {
+        // If the component is missing arguments, all placeholders are measured as %s
+        // Extra arguments are ignored, and an argument used twice is measured twice
+        List<TranslationArgument> args = component.arguments();
+        boolean insufficientArguments = args.size() < pattern.requiredArguments();
+
+        IComponentMeasurer measurer = argumentMeasurer();
+        double totalArgsWidth = 0.0;
+        for (int i = 0; i < pattern.placeholderCount(); i++) {
+            Component componentArgument = insufficientArguments
+                ? DUMMY_PLACEHOLDER_COMPONENT
+                : args.get(pattern.argumentIndex(i)).asComponent();
+            totalArgsWidth += measurer.measure(componentArgument, bold);
+        }
         
-        return totalArgsWidthArray[0];
+        return totalArgsWidth;
     }
-    
-    private List<TranslationArgument> adjustArgumentsList(List<TranslationArgument> args, int placeholderCount) {
-        // If translatableComponent are missing arguments, all arguments will be considered as %s 
-        // (currently we can't distinguish if the pattern contains %s or positional %1$s, %2$s)
-        // If translatableComponent has more arguments than expected, the extra arguments are ignored
-        if (args.size() < placeholderCount) {
-            return DUMMY_ARGUMENTS.subList(0, placeholderCount);
-        } else if (args.size() > placeholderCount) {
-            return args.subList(0, placeholderCount);
+
+    private long measureArgumentsUnits(TranslatableComponent component, TranslationPattern pattern, boolean bold) {
+        List<TranslationArgument> args = component.arguments();
+        boolean insufficientArguments = args.size() < pattern.requiredArguments();
+
+        IComponentMeasurer measurer = argumentMeasurer();
+        long totalArgsUnits = 0;
+        for (int i = 0; i < pattern.placeholderCount(); i++) {
+            Component componentArgument = insufficientArguments
+                ? DUMMY_PLACEHOLDER_COMPONENT
+                : args.get(pattern.argumentIndex(i)).asComponent();
+            totalArgsUnits += measurer.measureUnits(componentArgument, bold);
         }
-        return args;
+
+        return totalArgsUnits;
     }
     
+    // The given measurer, or one built once for this handler from its config
+    private IComponentMeasurer argumentMeasurer() {
+        IComponentMeasurer measurer = argumentMeasurer;
+        if (measurer == null) {
+            synchronized (this) {
+                measurer = argumentMeasurer;
+                if (measurer == null) {
+                    measurer = new ComponentMeasurer(config);
+                    argumentMeasurer = measurer;
+                }
+            }
+        }
+        return measurer;
+    }
+
     private void warnIfUnforcedComponent(String identifier, String translation, double width) {
         // Warn that an unresolved TranslatableComponent is being measured
         if (Calinea.config().warnOnUnforcedClientComponents()) {
@@ -0,0 +1,42 @@
+package io.calinea.segmentation.measurer;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import net.kyori.adventure.text.ComponentLike;
+
+/**
+ * Measures a range of a batch, split in halves until small enough to be measured by one thread.
+ */
+final class BatchMeasureTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+    private static final int RANGE_SIZE = 128;
+
+    // A task is never serialized, it only runs in the pool
+    private final transient IComponentMeasurer measurer;
+    private final transient List<? extends ComponentLike> components;
+    private final double[] widths;
+    private final int from;
+    private final int to;
+
+    BatchMeasureTask(IComponentMeasurer measurer, List<? extends ComponentLike> components, double[] widths, int from, int to) {
+        this.measurer = measurer;
+        this.components = components;
+        this.widths = widths;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= RANGE_SIZE) {
+            measurer.measureRange(components, widths, from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new BatchMeasureTask(measurer, components, widths, from, middle),
+            new BatchMeasureTask(measurer, components, widths, middle, to));
+    }
+}
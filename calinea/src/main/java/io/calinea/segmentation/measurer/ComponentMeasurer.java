@@ -1,9 +1,14 @@
 package io.calinea.segmentation.measurer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jspecify.annotations.Nullable;
 
+import io.calinea.pack.font.FixedWidth;
 import io.calinea.segmentation.handlers.BlockNBTComponentHandler;
 import io.calinea.segmentation.handlers.EntityNBTComponentHandler;
 import io.calinea.segmentation.handlers.IComponentLayoutHandler;
@@ -14,25 +19,53 @@ import io.calinea.segmentation.handlers.SelectorComponentHandler;
 import io.calinea.segmentation.handlers.StorageNBTComponentHandler;
 import io.calinea.segmentation.handlers.TextComponentHandler;
 import io.calinea.segmentation.handlers.TranslatableComponentHandler;
+import io.calinea.traversal.ComponentTraversal;
+import io.calinea.traversal.IComponentVisitor;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.Style;
-import net.kyori.adventure.text.format.Style.Merge;
 import net.kyori.adventure.text.format.TextDecoration;
 
 /**
  * Main ComponentMeasurer that delegates to specific component measurers
  * based on the component type using polymorphism.
+ * <p>
+ * The handler of a component is looked up once per concrete component class, then dispatched from a table.
+ * Plain text components skip the table.
+ * </p>
+ * <p>
+ * Trees are walked with {@link ComponentTraversal}, so their depth is not limited by the thread stack.
+ * With a {@link ComponentWidthMemo}, the width of a reused tree is taken from the memo instead of walking it again.
+ * </p>
  */
 public class ComponentMeasurer implements IComponentMeasurer{
+    // The implementation class of the text components built by Adventure
+    private static final Class<?> TEXT_COMPONENT_TYPE = Component.empty().getClass();
+
     private final List<IComponentLayoutHandler<?>> measurers;
+    private final Map<Class<?>, IComponentLayoutHandler<?>> handlersByType = new ConcurrentHashMap<>();
+    private final boolean textFastPath;
 
     private TextComponentHandler textComponentMeasurer;
+    private final boolean fixedPointWidths;
+    private final @Nullable ComponentWidthMemo widthMemo;
 
     public ComponentMeasurer(ComponentMeasurerConfig config) {
+        this(config, List.of());
+    }
+
+    /**
+     * @param config the measuring config
+     * @param customHandlers handlers tried before the default ones, in order
+     */
+    public ComponentMeasurer(ComponentMeasurerConfig config, List<? extends IComponentLayoutHandler<?>> customHandlers) {
+        this.fixedPointWidths = config.fixedPointWidths();
+        this.widthMemo = config.getWidthMemo();
         this.textComponentMeasurer = new TextComponentHandler(config);
-        this.measurers = List.of(
+
+        List<IComponentLayoutHandler<?>> allHandlers = new ArrayList<>(customHandlers);
+        allHandlers.addAll(List.of(
             textComponentMeasurer,
             new SelectorComponentHandler(config),
             new ScoreComponentHandler(),
@@ -41,8 +74,19 @@ public class ComponentMeasurer implements IComponentMeasurer{
             new EntityNBTComponentHandler(),
             new StorageNBTComponentHandler(),
             new KeybindComponentHandler(config),
-            new TranslatableComponentHandler(config)
-        );
+            new TranslatableComponentHandler(config, this)
+        ));
+        this.measurers = List.copyOf(allHandlers);
+        this.textFastPath = customHandlers.stream().noneMatch(handler -> handler.canHandle(Component.empty()));
+    }
+
+    /**
+     * Gets the memo of the tree widths, to read its statistics.
+     *
+     * @return the memo, or null if disabled
+     */
+    public @Nullable ComponentWidthMemo widthMemo() {
+        return widthMemo;
     }
 
     public double measure(ComponentLike componentLike) {
@@ -50,46 +94,129 @@ public class ComponentMeasurer implements IComponentMeasurer{
     }
 
     public double measure(ComponentLike componentLike, @Nullable Style parentStyle) {
+        return measure(componentLike, parentStyle != null && parentStyle.hasDecoration(TextDecoration.BOLD));
+    }
+
+    /**
+     * Measures a component and its children, passing the effective bold flag down the tree.
+     * Only the bold decoration is inherited by the measurement (the font is not), so neither styles nor components are rebuilt.
+     */
+    @Override
+    public double measure(ComponentLike componentLike, boolean parentBold) {
         Component component = componentLike.asComponent();
-        
-        // Apply parent style to current component for measurement
-        if (parentStyle == null) {
-            parentStyle = Style.empty();
+        if (fixedPointWidths) {
+            return FixedWidth.toPixels(measureUnits(component, parentBold));
+        }
+        if (component.children().isEmpty()) {
+            return measureRoot(component, isBold(component, parentBold));
         }
-        Style componentStyle = component.style();
-        Style mergedStyle = componentStyle.merge(parentStyle, Merge.Strategy.IF_ABSENT_ON_TARGET, Merge.DECORATIONS);
-        component = component.style(mergedStyle);
-        
-        double rootWidth = measureRoot(component);
-        double childrenWidth = measureChildren(component);
 
-        return rootWidth + childrenWidth;
+        MeasureVisitor visitor = new MeasureVisitor(false);
+        visitor.walk(component, parentBold);
+        return visitor.width;
     }
 
-    private double measureChildren(ComponentLike componentLike) {
-        double totalChildWidth = 0;
-        Component component = componentLike.asComponent();
+    /**
+     * Measures a range of a batch with a single traversal visitor.
+     */
+    @Override
+    public void measureRange(List<? extends ComponentLike> components, double[] widths, int from, int to) {
+        @Nullable MeasureVisitor visitor = null; // created for the first tree with children
+        for (int i = from; i < to; i++) {
+            Component component = components.get(i).asComponent();
+            if (component.children().isEmpty()) {
+                widths[i] = measure(component, false);
+                continue;
+            }
+
+            if (visitor == null) {
+                visitor = new MeasureVisitor(fixedPointWidths);
+            }
+            visitor.walk(component, false);
+            widths[i] = fixedPointWidths ? FixedWidth.toPixels(visitor.units) : visitor.width;
+        }
+    }
+
+    /**
+     * Measures the width of a component and its children in {@link FixedWidth} units.
+     * Each part is converted to units before being summed, so the total does not drift.
+     */
+    public long measureUnits(ComponentLike componentLike, @Nullable Style parentStyle) {
+        return measureUnits(componentLike.asComponent(), parentStyle != null && parentStyle.hasDecoration(TextDecoration.BOLD));
+    }
 
-        for (ComponentLike child : component.children()) {
-            totalChildWidth += measure(child, component.style());
+    @Override
+    public long measureUnits(ComponentLike componentLike, boolean parentBold) {
+        Component component = componentLike.asComponent();
+        if (component.children().isEmpty()) {
+            return measureRootUnits(component, isBold(component, parentBold));
         }
-        return totalChildWidth;
+
+        MeasureVisitor visitor = new MeasureVisitor(true);
+        visitor.walk(component, parentBold);
+        return visitor.units;
+    }
+
+    // The own decoration of the component if set, else the inherited one
+    private static boolean isBold(Component component, boolean parentBold) {
+        TextDecoration.State state = component.style().decoration(TextDecoration.BOLD);
+        return state == TextDecoration.State.NOT_SET ? parentBold : state == TextDecoration.State.TRUE;
     }
 
     public double measureRoot(ComponentLike componentLike) {
         Component component = componentLike.asComponent();
 
+        // Direct call for the most common type, so that it stays monomorphic
+        if (textFastPath && component.getClass() == TEXT_COMPONENT_TYPE) {
+            return textComponentMeasurer.measureRoot((TextComponent) component);
+        }
+
         // Find the appropriate measurer for this component type
-        for (IComponentLayoutHandler<?> measurer : measurers) {
-            if (measurer.canHandle(component)) {
-                @SuppressWarnings("unchecked")
-                IComponentLayoutHandler<Component> typedMeasurer = (IComponentLayoutHandler<Component>) measurer;
-                return typedMeasurer.measureRoot(component);
-            }
+        IComponentLayoutHandler<Component> measurer = handlerFor(component);
+        if (measurer == null) {
+            throw new UnsupportedOperationException(
+                "No measurer found for component type: " + component.getClass().getSimpleName());
+        }
+        return measurer.measureRoot(component);
+    }
+
+    /**
+     * Measures the root width of a component (excluding its children) with its effective bold flag.
+     */
+    public double measureRoot(Component component, boolean bold) {
+        if (textFastPath && component.getClass() == TEXT_COMPONENT_TYPE) {
+            return textComponentMeasurer.measureRoot((TextComponent) component, bold);
+        }
+
+        IComponentLayoutHandler<Component> measurer = handlerFor(component);
+        if (measurer == null) {
+            throw new UnsupportedOperationException(
+                "No measurer found for component type: " + component.getClass().getSimpleName());
+        }
+        return measurer.measureRoot(component, bold);
+    }
+
+    @Override
+    public long measureRootUnits(ComponentLike componentLike) {
+        Component component = componentLike.asComponent();
+        return measureRootUnits(component, component.style().hasDecoration(TextDecoration.BOLD));
+    }
+
+    /**
+     * Measures the root width of a component (excluding its children) with its effective bold flag,
+     * in {@link FixedWidth} units summed by the handler.
+     */
+    public long measureRootUnits(Component component, boolean bold) {
+        if (textFastPath && component.getClass() == TEXT_COMPONENT_TYPE) {
+            return textComponentMeasurer.measureRootUnits((TextComponent) component, bold);
         }
 
-        throw new UnsupportedOperationException(
-            "No measurer found for component type: " + component.getClass().getSimpleName());
+        IComponentLayoutHandler<Component> measurer = handlerFor(component);
+        if (measurer == null) {
+            throw new UnsupportedOperationException(
+                "No measurer found for component type: " + component.getClass().getSimpleName());
+        }
+        return measurer.measureRootUnits(component, bold);
     }
 
     /**
@@ -100,31 +227,134 @@ public class ComponentMeasurer implements IComponentMeasurer{
         return textComponentMeasurer.measureTextWidth(text, style.font(), style.hasDecoration(TextDecoration.BOLD));
     }
 
+    /**
+     * Measures the width of a plain text string with the given style in {@link FixedWidth} units, summed glyph by glyph.
+     */
+    @Override
+    public long measureTextUnits(String text, Style style) {
+        return textComponentMeasurer.measureTextUnits(text, style.font(), style.hasDecoration(TextDecoration.BOLD));
+    }
+
     /**
      * Converts a component to its TextComponent representation for splitting.
      * Delegates to the appropriate IComponentMeasurer.
      */
     public @Nullable TextComponent asTextComponent(Component component) {
-        for (IComponentLayoutHandler<?> measurer : measurers) {
-            if (measurer.canHandle(component)) {
-                @SuppressWarnings("unchecked")
-                IComponentLayoutHandler<Component> typedMeasurer = (IComponentLayoutHandler<Component>) measurer;
-                return typedMeasurer.asTextComponent(component);
-            }
+        if (textFastPath && component.getClass() == TEXT_COMPONENT_TYPE) {
+            return textComponentMeasurer.asTextComponent((TextComponent) component);
         }
-        return null;
+
+        IComponentLayoutHandler<Component> measurer = handlerFor(component);
+        return measurer != null ? measurer.asTextComponent(component) : null;
     }
 
     /**
      * Checks if the component is atomic (cannot be split).
      */
     public boolean isAtomic(Component component) {
-        for (IComponentLayoutHandler<?> measurer : measurers) {
-            if (measurer.canHandle(component)) {
-                return measurer.isAtomic();
-            }
+        if (textFastPath && component.getClass() == TEXT_COMPONENT_TYPE) {
+            return textComponentMeasurer.isAtomic();
         }
+
+        IComponentLayoutHandler<Component> measurer = handlerFor(component);
         // Default to atomic if unknown
-        return true;
+        return measurer == null || measurer.isAtomic();
+    }
+
+    /**
+     * Gets the handler of a component, looked up by {@link IComponentLayoutHandler#canHandle(Component)}
+     * on the first component of its class, then from the table.
+     * @return the handler, or null if no handler can handle it
+     */
+    @SuppressWarnings("unchecked")
+    private @Nullable IComponentLayoutHandler<Component> handlerFor(Component component) {
+        IComponentLayoutHandler<?> handler = handlersByType.get(component.getClass());
+        if (handler == null) {
+            for (IComponentLayoutHandler<?> measurer : measurers) {
+                if (measurer.canHandle(component)) {
+                    handler = measurer;
+                    handlersByType.put(component.getClass(), handler);
+                    break;
+                }
+            }
+        }
+        return (IComponentLayoutHandler<Component>) handler;
+    }
+
+    /**
+     * Sums the root widths of a tree, with the effective bold flag as the state passed down.
+     * With a memo, the subtrees already measured are skipped, and the others are memoized on exit.
+     */
+    private final class MeasureVisitor implements IComponentVisitor<MeasureState> {
+        private final boolean inUnits;
+        private final @Nullable ComponentWidthMemo memo;
+        private double width;
+        private long units;
+
+        // Total when each memoized subtree being walked was entered
+        private double[] startTotals = new double[0];
+        private int startCount;
+
+        private MeasureVisitor(boolean inUnits) {
+            this.inUnits = inUnits;
+            this.memo = inUnits == fixedPointWidths ? widthMemo : null; // only in the mode of this measurer
+        }
+
+        // Measures a tree, from a total of 0
+        private void walk(Component component, boolean parentBold) {
+            width = 0;
+            units = 0;
+            ComponentTraversal.walk(component, this, parentBold ? MeasureState.BOLD : MeasureState.PLAIN);
+        }
+
+        @Override
+        public MeasureState enter(Component component, MeasureState parentState) {
+            boolean bold = isBold(component, parentState == MeasureState.BOLD);
+
+            if (memo != null && !component.children().isEmpty()) {
+                double memoized = memo.get(component, bold);
+                if (!Double.isNaN(memoized)) {
+                    if (inUnits) {
+                        units += (long) memoized;
+                    } else {
+                        width += memoized;
+                    }
+                    return MeasureState.MEMOIZED;
+                }
+                if (startCount == startTotals.length) {
+                    startTotals = Arrays.copyOf(startTotals, Math.max(8, startCount * 2));
+                }
+                startTotals[startCount++] = total();
+            }
+
+            if (inUnits) {
+                units += measureRootUnits(component, bold);
+            } else {
+                width += measureRoot(component, bold);
+            }
+            return bold ? MeasureState.BOLD : MeasureState.PLAIN;
+        }
+
+        @Override
+        public List<Component> children(Component component, MeasureState state) {
+            return state == MeasureState.MEMOIZED ? List.of() : component.children();
+        }
+
+        @Override
+        public void exit(Component component, MeasureState state) {
+            if (memo != null && state != MeasureState.MEMOIZED && !component.children().isEmpty()) {
+                memo.put(component, state == MeasureState.BOLD, total() - startTotals[--startCount]);
+            }
+        }
+
+        private double total() {
+            return inUnits ? units : width;
+        }
+    }
+
+    private enum MeasureState {
+        PLAIN,
+        BOLD,
+        MEMOIZED // width taken from the memo, children skipped
     }
-}
\ No newline at end of file
+}
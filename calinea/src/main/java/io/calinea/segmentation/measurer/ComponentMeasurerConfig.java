@@ -1,15 +1,184 @@
 package io.calinea.segmentation.measurer;
 
+import org.jspecify.annotations.Nullable;
+
 import io.calinea.pack.PackInfo;
+import io.calinea.pack.font.FixedWidth;
+import io.calinea.pack.translation.TranslationPattern;
+import io.calinea.utils.FrequencyCache;
+import io.calinea.utils.TranslatableComponentUtils.EnglishPatternKey;
 
+/**
+ * The settings and caches of a {@link ComponentMeasurer}.
+ * <p>
+ * Use {@link Builder} to set the optional ones.
+ * </p>
+ */
 public class ComponentMeasurerConfig {
     private final PackInfo packInfo;
+    private final boolean fixedPointWidths;
+    private final @Nullable FrequencyCache<TextWidthKey, Double> widthCache;
+    private final @Nullable FrequencyCache<TranslationWidthKey, Double> translationWidthCache;
+    private final @Nullable FrequencyCache<TextWidthKey, Long> unitsCache;
+    private final @Nullable FrequencyCache<TranslationWidthKey, Long> translationUnitsCache;
+    private final @Nullable ComponentWidthMemo widthMemo;
+    private final @Nullable FrequencyCache<EnglishPatternKey, TranslationPattern> englishPatternCache;
 
+    /**
+     * Creates a config with the default settings and no cache.
+     *
+     * @param packInfo the pack to measure with
+     */
     public ComponentMeasurerConfig(PackInfo packInfo) {
-        this.packInfo = packInfo;
+        this(new Builder(packInfo));
+    }
+
+    private ComponentMeasurerConfig(Builder builder) {
+        this.packInfo = builder.packInfo;
+        this.fixedPointWidths = builder.fixedPointWidths;
+        this.widthCache = builder.widthCache;
+        this.translationWidthCache = builder.translationWidthCache;
+        this.unitsCache = builder.unitsCache;
+        this.translationUnitsCache = builder.translationUnitsCache;
+        this.widthMemo = builder.widthMemo;
+        this.englishPatternCache = builder.englishPatternCache;
     }
 
     public PackInfo getPackInfo() {
         return packInfo;
     }
+
+    public boolean fixedPointWidths() {
+        return fixedPointWidths;
+    }
+
+    public @Nullable FrequencyCache<TextWidthKey, Double> getWidthCache() {
+        return widthCache;
+    }
+
+    public @Nullable FrequencyCache<TranslationWidthKey, Double> getTranslationWidthCache() {
+        return translationWidthCache;
+    }
+
+    public @Nullable FrequencyCache<TextWidthKey, Long> getUnitsCache() {
+        return unitsCache;
+    }
+
+    public @Nullable FrequencyCache<TranslationWidthKey, Long> getTranslationUnitsCache() {
+        return translationUnitsCache;
+    }
+
+    public @Nullable ComponentWidthMemo getWidthMemo() {
+        return widthMemo;
+    }
+
+    public @Nullable FrequencyCache<EnglishPatternKey, TranslationPattern> getEnglishPatternCache() {
+        return englishPatternCache;
+    }
+
+    /**
+     * Builder for creating {@link ComponentMeasurerConfig} instances.
+     */
+    public static class Builder {
+        private final PackInfo packInfo;
+        private boolean fixedPointWidths;
+        private @Nullable FrequencyCache<TextWidthKey, Double> widthCache;
+        private @Nullable FrequencyCache<TranslationWidthKey, Double> translationWidthCache;
+        private @Nullable FrequencyCache<TextWidthKey, Long> unitsCache;
+        private @Nullable FrequencyCache<TranslationWidthKey, Long> translationUnitsCache;
+        private @Nullable ComponentWidthMemo widthMemo;
+        private @Nullable FrequencyCache<EnglishPatternKey, TranslationPattern> englishPatternCache;
+
+        /**
+         * Creates a new builder with the required pack info.
+         *
+         * @param packInfo the pack to measure with
+         */
+        public Builder(PackInfo packInfo) {
+            this.packInfo = packInfo;
+        }
+
+        /**
+         * Sets whether widths are summed as {@link FixedWidth} units instead of doubles. Default is false.
+         *
+         * @return this builder
+         */
+        public Builder fixedPointWidths(boolean fixedPointWidths) {
+            this.fixedPointWidths = fixedPointWidths;
+            return this;
+        }
+
+        /**
+         * Sets the cache of text widths, or null (default) to measure every text.
+         * Only used in double mode, see {@link #unitsCache(FrequencyCache)} in fixed-point mode.
+         *
+         * @return this builder
+         */
+        public Builder widthCache(@Nullable FrequencyCache<TextWidthKey, Double> widthCache) {
+            this.widthCache = widthCache;
+            return this;
+        }
+
+        /**
+         * Sets the cache of the literal widths of translation patterns, or null (default) to measure them every time.
+         * Only used in double mode, see {@link #translationUnitsCache(FrequencyCache)} in fixed-point mode.
+         *
+         * @return this builder
+         */
+        public Builder translationWidthCache(@Nullable FrequencyCache<TranslationWidthKey, Double> translationWidthCache) {
+            this.translationWidthCache = translationWidthCache;
+            return this;
+        }
+
+        /**
+         * Sets the cache of text widths in {@link FixedWidth} units, used in fixed-point mode,
+         * or null (default) to measure every text.
+         *
+         * @return this builder
+         */
+        public Builder unitsCache(@Nullable FrequencyCache<TextWidthKey, Long> unitsCache) {
+            this.unitsCache = unitsCache;
+            return this;
+        }
+
+        /**
+         * Sets the cache of the literal widths of translation patterns in {@link FixedWidth} units, used in fixed-point mode,
+         * or null (default) to measure them every time.
+         *
+         * @return this builder
+         */
+        public Builder translationUnitsCache(@Nullable FrequencyCache<TranslationWidthKey, Long> translationUnitsCache) {
+            this.translationUnitsCache = translationUnitsCache;
+            return this;
+        }
+
+        /**
+         * Sets the memo of the widths of reused trees, or null (default) to walk every tree.
+         *
+         * @return this builder
+         */
+        public Builder widthMemo(@Nullable ComponentWidthMemo widthMemo) {
+            this.widthMemo = widthMemo;
+            return this;
+        }
+
+        /**
+         * Sets the cache of the English patterns of unforced translatable components, or null (default) to extract them every time.
+         *
+         * @return this builder
+         */
+        public Builder englishPatternCache(@Nullable FrequencyCache<EnglishPatternKey, TranslationPattern> englishPatternCache) {
+            this.englishPatternCache = englishPatternCache;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return the new config
+         */
+        public ComponentMeasurerConfig build() {
+            return new ComponentMeasurerConfig(this);
+        }
+    }
 }
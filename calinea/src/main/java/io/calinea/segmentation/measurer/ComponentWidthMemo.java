@@ -0,0 +1,219 @@
+package io.calinea.segmentation.measurer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.Nullable;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Memo of the measured width of component trees, keyed by component identity.
+ * <p>
+ * Components are immutable, so a tree reused as is (a header, a separator, a prefix constant...)
+ * always has the same width with the same pack and bold flag, as long as the layout handlers are deterministic.
+ * Keys are weak: a component that is no longer used elsewhere leaves the memo after the next garbage collection,
+ * on the next miss or insertion.
+ * </p>
+ * <p>
+ * Comparing by identity avoids {@link Component#equals(Object)}, which compares whole trees:
+ * an equal but rebuilt tree is measured again. A memo belongs to the measurer of one pack,
+ * so it is dropped with it on reload.
+ * </p>
+ * <p>
+ * Most measured trees are built for a single use (a line around a reused header), so a tree is only memoized
+ * the second time it is measured. The first times are recorded in a small table of identity hashes,
+ * which makes the single-use trees cost a hash instead of an entry.
+ * </p>
+ */
+public final class ComponentWidthMemo {
+
+    private static final int SEEN_TABLE_SIZE = 1024; // power of two
+
+    private final Map<IdentityKey, Widths> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Component> collectedKeys = new ReferenceQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Identity hashes of the trees measured once, by slot (racy writes only cost an extra measure)
+    private final int[] seenHashes = new int[SEEN_TABLE_SIZE];
+
+    /**
+     * Gets the memoized width of a tree, counting a hit or a miss.
+     *
+     * @param bold the effective bold flag of the root of the tree
+     * @return the width, or {@link Double#NaN} if not memoized
+     */
+    public double get(Component component, boolean bold) {
+        Widths widths = entries.get(new LookupKey(component));
+        double width = widths != null ? widths.get(bold) : Double.NaN;
+        if (Double.isNaN(width)) {
+            misses.increment();
+            expungeCollectedKeys(); // also when nothing is memoized anymore
+        } else {
+            hits.increment();
+        }
+        return width;
+    }
+
+    /**
+     * Memoizes the width of a tree, if it was already measured recently.
+     *
+     * @param bold the effective bold flag of the root of the tree
+     */
+    public void put(Component component, boolean bold, double width) {
+        int hash = System.identityHashCode(component);
+        int slot = hash & (SEEN_TABLE_SIZE - 1);
+        if (seenHashes[slot] != hash) {
+            seenHashes[slot] = hash; // first time: only recorded
+            return;
+        }
+        expungeCollectedKeys();
+
+        Widths widths = entries.get(new LookupKey(component));
+        if (widths == null) {
+            widths = entries.computeIfAbsent(new WeakKey(component, collectedKeys), key -> new Widths());
+        }
+        widths.set(bold, width);
+    }
+
+    private void expungeCollectedKeys() {
+        Reference<? extends Component> collected;
+        while ((collected = collectedKeys.poll()) != null) {
+            entries.remove(collected);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        Arrays.fill(seenHashes, 0);
+    }
+
+    /**
+     * Returns the number of memoized trees still in use.
+     * A tree collected by the last garbage collection may still be counted until its reference is enqueued.
+     */
+    public int size() {
+        expungeCollectedKeys();
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the ratio of hits over lookups, or 0 if nothing was looked up yet.
+     */
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ComponentWidthMemo{size=%d, hits=%d, misses=%d, hitRate=%.2f}",
+            size(), hits(), misses(), hitRate());
+    }
+
+    /**
+     * The widths of a tree, for each bold flag of its root, NaN while not measured.
+     */
+    private static final class Widths {
+        private volatile double plain = Double.NaN;
+        private volatile double bold = Double.NaN;
+
+        private double get(boolean isBold) {
+            return isBold ? bold : plain;
+        }
+
+        private void set(boolean isBold, double width) {
+            if (isBold) {
+                bold = width;
+            } else {
+                plain = width;
+            }
+        }
+    }
+
+    /**
+     * A key comparing the components by identity. The stored keys and the lookup keys are equal to each other
+     * when they have the same component, whichever side the comparison is made from.
+     */
+    private interface IdentityKey {
+        @Nullable Component component();
+
+        static boolean equal(IdentityKey key, @Nullable Object other) {
+            if (key == other) {
+                return true;
+            }
+            Component component = key.component();
+            return component != null && other instanceof IdentityKey otherKey && otherKey.component() == component;
+        }
+    }
+
+    /**
+     * The stored key: a weak reference, equal to another key of the same referent.
+     * Once collected, it is only equal to itself, so that it can still be removed.
+     */
+    private static final class WeakKey extends WeakReference<Component> implements IdentityKey {
+        private final int hash;
+
+        private WeakKey(Component component, ReferenceQueue<Component> queue) {
+            super(component, queue);
+            this.hash = System.identityHashCode(component);
+        }
+
+        @Override
+        public @Nullable Component component() {
+            return get();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            return IdentityKey.equal(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A short-lived key for lookups, without creating a reference.
+     */
+    private static final class LookupKey implements IdentityKey {
+        private final Component component;
+
+        private LookupKey(Component component) {
+            this.component = component;
+        }
+
+        @Override
+        public Component component() {
+            return component;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            return IdentityKey.equal(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(component);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package io.calinea.segmentation.measurer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+
 import org.jspecify.annotations.Nullable;
 
+import io.calinea.pack.font.FixedWidth;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
 
 /**
  * Main ComponentMeasurer that delegates to specific component measurers
@@ -13,18 +20,102 @@ import net.kyori.adventure.text.format.Style;
  */
 public interface IComponentMeasurer {
 
+    /**
+     * Number of components from which {@link #measureAll(List, boolean)} measures in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 512;
+
     public double measure(ComponentLike componentLike);
 
     public double measure(ComponentLike componentLike, @Nullable Style parentStyle);
 
+    /**
+     * Measures a component whose parents are bold or not.
+     * Only the bold decoration of the parents changes the width, so no style needs to be built.
+     */
+    public default double measure(ComponentLike componentLike, boolean parentBold) {
+        return measure(componentLike, parentBold ? Style.style(TextDecoration.BOLD) : null);
+    }
+
+    /**
+     * Measures a component whose parents are bold or not in {@link FixedWidth} units.
+     * The default converts {@link #measure(ComponentLike, boolean)}, implementations can sum the units of each part instead.
+     */
+    public default long measureUnits(ComponentLike componentLike, boolean parentBold) {
+        return FixedWidth.toUnits(measure(componentLike, parentBold));
+    }
+
+    /**
+     * Measures a batch of components, as {@link #measure(ComponentLike)} would measure each of them.
+     *
+     * @return the widths, in the order of the components
+     */
+    public default double[] measureAll(List<? extends ComponentLike> components) {
+        return measureAll(components, false);
+    }
+
+    /**
+     * Measures a batch of components, as {@link #measure(ComponentLike)} would measure each of them.
+     * <p>
+     * In parallel mode, a batch of at least {@value #PARALLEL_THRESHOLD} components is split into ranges
+     * measured by the common {@link ForkJoinPool}, unless it has a single thread.
+     * The measurer must then be thread-safe, like the default one.
+     * </p>
+     *
+     * @param parallel whether a large batch may be measured in parallel
+     * @return the widths, in the order of the components
+     */
+    public default double[] measureAll(List<? extends ComponentLike> components, boolean parallel) {
+        if (!(components instanceof RandomAccess)) {
+            components = new ArrayList<>(components);
+        }
+
+        double[] widths = new double[components.size()];
+        if (parallel && widths.length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new BatchMeasureTask(this, components, widths, 0, widths.length));
+        } else {
+            measureRange(components, widths, 0, widths.length);
+        }
+        return widths;
+    }
+
+    /**
+     * Measures the components of a range of a batch, called by {@link #measureAll(List, boolean)} once per range.
+     * Implementations can override it to share state between the components of the range.
+     *
+     * @param components the batch, with random access
+     * @param widths the widths of the batch, filled from {@code from} (inclusive) to {@code to} (exclusive)
+     */
+    public default void measureRange(List<? extends ComponentLike> components, double[] widths, int from, int to) {
+        for (int i = from; i < to; i++) {
+            widths[i] = measure(components.get(i));
+        }
+    }
+
     public double measureRoot(ComponentLike componentLike);
 
+    /**
+     * Measures the root width of a component (excluding its children) in {@link FixedWidth} units.
+     * The default converts {@link #measureRoot(ComponentLike)}.
+     */
+    public default long measureRootUnits(ComponentLike componentLike) {
+        return FixedWidth.toUnits(measureRoot(componentLike));
+    }
+
     /**
      * Measures the width of a plain text string with the given style.
      * This is a helper method to avoid creating TextComponent objects just for measurement.
      */
     public double measureText(String text, Style style);
 
+    /**
+     * Measures the width of a plain text string with the given style in {@link FixedWidth} units.
+     * The default converts {@link #measureText(String, Style)}.
+     */
+    public default long measureTextUnits(String text, Style style) {
+        return FixedWidth.toUnits(measureText(text, style));
+    }
+
     /**
      * Converts a component to its TextComponent representation for splitting.
      * Delegates to the appropriate IComponentMeasurer.
@@ -0,0 +1,49 @@
+package io.calinea.segmentation.measurer;
+
+import io.calinea.pack.font.FontFace;
+
+/**
+ * Key of the text width cache: a text measured with a font face (font and bold flag).
+ * <p>
+ * Faces are interned by {@link io.calinea.pack.font.FontsInfo}, so they are compared by identity.
+ * </p>
+ */
+public final class TextWidthKey {
+    private final FontFace face;
+    private final String text;
+    private final int hash;
+
+    public TextWidthKey(FontFace face, String text) {
+        this.face = face;
+        this.text = text;
+        this.hash = 31 * System.identityHashCode(face) + text.hashCode();
+    }
+
+    public FontFace face() {
+        return face;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof TextWidthKey other
+            && face == other.face
+            && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TextWidthKey{face=%s, text='%s'}", face, text);
+    }
+}
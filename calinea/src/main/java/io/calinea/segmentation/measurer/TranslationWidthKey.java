@@ -0,0 +1,51 @@
+package io.calinea.segmentation.measurer;
+
+import io.calinea.pack.font.FontFace;
+import io.calinea.pack.translation.TranslationPattern;
+
+/**
+ * Key of the translation width cache: the literal text of a translation pattern measured with a font face.
+ * <p>
+ * Faces are interned by {@link io.calinea.pack.font.FontsInfo}, so they are compared by identity.
+ * Patterns are cached by their language, so the same instance usually comes back and is compared by identity first.
+ * </p>
+ */
+public final class TranslationWidthKey {
+    private final FontFace face;
+    private final TranslationPattern pattern;
+    private final int hash;
+
+    public TranslationWidthKey(FontFace face, TranslationPattern pattern) {
+        this.face = face;
+        this.pattern = pattern;
+        this.hash = 31 * System.identityHashCode(face) + pattern.hashCode();
+    }
+
+    public FontFace face() {
+        return face;
+    }
+
+    public TranslationPattern pattern() {
+        return pattern;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof TranslationWidthKey other
+            && face == other.face
+            && pattern.equals(other.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TranslationWidthKey{face=%s, pattern='%s'}", face, pattern.pattern());
+    }
+}
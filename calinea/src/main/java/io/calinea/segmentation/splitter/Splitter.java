@@ -6,42 +6,80 @@ import net.kyori.adventure.text.format.Style;
 
 import java.util.List;
 
+import io.calinea.pack.font.FixedWidth;
 import io.calinea.segmentation.SegmentationResult;
 import io.calinea.segmentation.SegmentationState;
 import io.calinea.segmentation.measurer.IComponentMeasurer;
+import io.calinea.traversal.ComponentTraversal;
+import io.calinea.traversal.IComponentVisitor;
 
 public class Splitter {
 
     private final TextTokenizer tokenizer;
     private final IComponentMeasurer measurer;
+    private final boolean fixedPointWidths;
 
     public Splitter(TextTokenizer tokenizer, IComponentMeasurer measurer) {
+        this(tokenizer, measurer, false);
+    }
+
+    /**
+     * @param fixedPointWidths whether line widths are accumulated and compared as {@link io.calinea.pack.font.FixedWidth} units
+     */
+    public Splitter(TextTokenizer tokenizer, IComponentMeasurer measurer, boolean fixedPointWidths) {
         this.tokenizer = tokenizer;
         this.measurer = measurer;
+        this.fixedPointWidths = fixedPointWidths;
     }
 
     public SegmentationResult split(Component component, double maxWidth) {
-        SegmentationState state = new SegmentationState();
-        traverse(component, state, maxWidth);
+        SegmentationState state = new SegmentationState(fixedPointWidths);
+        ComponentTraversal.walk(component, new SplitVisitor(state, maxWidth), component);
         return new SegmentationResult(state.finish());
     }
 
-    private void traverse(Component component, SegmentationState state, double maxWidth) {
-        // 1. Push Style (Merge current component style with parent)
-        state.pushStyle(component.style());
+    /**
+     * Splits the content of each component, with the style stack pushed on enter and popped on exit.
+     * The state of a component is the component whose children are walked:
+     * itself, or its text representation (which contains the arguments of a translatable for example).
+     */
+    private final class SplitVisitor implements IComponentVisitor<Component> {
+        private final SegmentationState state;
+        private final double maxWidth;
 
-        // 2. Handle Content & Children
-        if (measurer.isAtomic(component)) {
-            handleAtomic(component, state, maxWidth);
-        } else {
-            handleSplittable(component, state, maxWidth);
+        private SplitVisitor(SegmentationState state, double maxWidth) {
+            this.state = state;
+            this.maxWidth = maxWidth;
+        }
+
+        @Override
+        public Component enter(Component component, Component parentState) {
+            // Push Style (Merge current component style with parent)
+            state.pushStyle(component.style());
+
+            if (measurer.isAtomic(component)) {
+                handleAtomic(component, state, maxWidth);
+                return component;
+            }
+            return handleSplittable(component, state, maxWidth);
         }
 
-        // 3. Pop Style
-        state.popStyle();
+        @Override
+        public List<Component> children(Component component, Component walked) {
+            return walked.children();
+        }
+
+        @Override
+        public void exit(Component component, Component walked) {
+            state.popStyle();
+        }
     }
-    
-    private void handleSplittable(Component component, SegmentationState state, double maxWidth) {
+
+    /**
+     * Splits the content of a non-atomic component.
+     * @return the component whose children are split next
+     */
+    private Component handleSplittable(Component component, SegmentationState state, double maxWidth) {
         // Non-atomic component (TextComponent or TranslatableComponent)
         // We convert to a "text-like" representation for splitting purposes.
         TextComponent resolved = measurer.asTextComponent(component);
@@ -60,9 +98,7 @@ public class Splitter {
         // the 'resolved' component contains the full structure (content + args + original children).
         // So we must traverse the 'resolved' structure's children.
         // If it wasn't replaced (Standard TextComponent), 'resolved' is 'component', so we traverse its children.
-        for (Component child : resolved.children()) {
-            traverse(child, state, maxWidth);
-        }
+        return resolved;
     }
 
     private void handleAtomic(Component component, SegmentationState state, double maxWidth) {
@@ -76,10 +112,11 @@ public class Splitter {
         Component atom = component.children(List.of()).style(state.currentStyle());
         
         // Note: measureRoot only measures the content of this component, not children
-        double width = measurer.measureRoot(atom);
+        long units = fixedPointWidths ? measurer.measureRootUnits(atom) : 0;
+        double width = fixedPointWidths ? FixedWidth.toPixels(units) : measurer.measureRoot(atom);
         
-        if (state.currentWidth() + width <= maxWidth) {
-            state.append(atom, width);
+        if (state.fits(width, units, maxWidth)) {
+            state.append(atom, width, units);
         } else {
             // If current line is not empty, wrap to new line first.
             if (state.currentWidth() > 0) {
@@ -87,13 +124,10 @@ public class Splitter {
                 state.newLine();
             }
             // Append to new line (even if it overflows)
-            state.append(atom, width);
+            state.append(atom, width, units);
         }
 
-        // Atomic components can still have children that need to be traversed
-        for (Component child : component.children()) {
-            traverse(child, state, maxWidth);
-        }
+        // Atomic components can still have children, they are traversed next
     }
 
     private void handleText(String text, SegmentationState state, double maxWidth) {
@@ -110,11 +144,12 @@ public class Splitter {
                 continue;
             }
             
-            // Measure the token using the helper in ComponentMeasurer
-            double tokenWidth = measurer.measureText(token, style);
+            // Measure the token using the helper in ComponentMeasurer, summed in units in fixed-point mode
+            long tokenUnits = fixedPointWidths ? measurer.measureTextUnits(token, style) : 0;
+            double tokenWidth = fixedPointWidths ? FixedWidth.toPixels(tokenUnits) : measurer.measureText(token, style);
             
-            if (state.currentWidth() + tokenWidth <= maxWidth) {
-                state.append(Component.text(token, style), tokenWidth);
+            if (state.fits(tokenWidth, tokenUnits, maxWidth)) {
+                state.append(Component.text(token, style), tokenWidth, tokenUnits);
             } else {
                 // Token doesn't fit.
                 
@@ -134,7 +169,7 @@ public class Splitter {
                 if (tokenWidth > maxWidth) {
                     splitByChar(token, style, state, maxWidth);
                 } else {
-                    state.append(Component.text(token, style), tokenWidth);
+                    state.append(Component.text(token, style), tokenWidth, tokenUnits);
                 }
             }
         }
@@ -147,12 +182,13 @@ public class Splitter {
             int codepoint = text.codePointAt(offset);
             String charStr = new String(Character.toChars(codepoint));
             
-            double charWidth = measurer.measureText(charStr, style);
+            long charUnits = fixedPointWidths ? measurer.measureTextUnits(charStr, style) : 0;
+            double charWidth = fixedPointWidths ? FixedWidth.toPixels(charUnits) : measurer.measureText(charStr, style);
             
-            if (state.currentWidth() + charWidth > maxWidth) {
+            if (!state.fits(charWidth, charUnits, maxWidth)) {
                 state.newLine();
             }
-            state.append(Component.text(charStr, style), charWidth);
+            state.append(Component.text(charStr, style), charWidth, charUnits);
             
             offset += Character.charCount(codepoint);
         }
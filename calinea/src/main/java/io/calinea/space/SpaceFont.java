@@ -16,8 +16,8 @@ public class SpaceFont {
     public static final int FRACTIONAL_DENOMINATOR = 4800;
     public static final double MAX_DELTA = 1.0 / FRACTIONAL_DENOMINATOR;
 
-    private static final int INTEGER_SPACE_ZERO = 0xD0000; // Base codepoint for integer space characters
-    private static final int FRACTIONAL_SPACE_ZERO = 0x50000; // Base codepoint for fractional space characters
+    public static final int INTEGER_SPACE_ZERO = 0xD0000; // Base codepoint for integer space characters
+    public static final int FRACTIONAL_SPACE_ZERO = 0x50000; // Base codepoint for fractional space characters
     private static final String FRACTIONAL_DENOMINATOR_STRING = Integer.toString(FRACTIONAL_DENOMINATOR);
 
     private static final Map<Key, String> MAP = new HashMap<>();
@@ -192,6 +192,68 @@ public class SpaceFont {
         return spaceInteger(integerPart) + spaceFractional(fractionalPart);
     }
 
+    /**
+     * Returns Unicode space character(s) of exactly the given width in 1/{@link #FRACTIONAL_DENOMINATOR} px units.
+     * <p>
+     * Unlike {@link #space(double)}, no rounding is involved: the integer and fractional parts are
+     * obtained by integer division, so the resulting space is exactly {@code units} long
+     * (except beyond {@link #MIN_WIDTH}/{@link #MAX_WIDTH} where the infinity spaces are used).
+     * </p>
+     *
+     * @param units the desired space width offset, in 1/{@link #FRACTIONAL_DENOMINATOR} px
+     * @return a string containing one or two Unicode space characters, possibly as surrogate pairs
+     * @see io.calinea.pack.font.FixedWidth
+     */
+    public static String spaceUnits(long units) {
+        if (units < (long) MIN_WIDTH * FRACTIONAL_DENOMINATOR) {
+            return Special.NEGATIVE_INFINITY.codepoint();
+        } else if (units > (long) MAX_WIDTH * FRACTIONAL_DENOMINATOR) {
+            return Special.POSITIVE_INFINITY.codepoint();
+        }
+
+        // Both truncate toward zero, like RoundingMode.DOWN in space(double)
+        int integerPart = (int) (units / FRACTIONAL_DENOMINATOR);
+        int numerator = (int) (units % FRACTIONAL_DENOMINATOR);
+
+        if (numerator == 0) {
+            return spaceInteger(integerPart);
+        }
+
+        String fractional = asSurrogatePair(FRACTIONAL_SPACE_ZERO + numerator);
+        if (integerPart == 0) {
+            return fractional;
+        }
+        return spaceInteger(integerPart) + fractional;
+    }
+
+    /**
+     * Returns the width of a space codepoint, computed from its encoding.
+     * <p>
+     * Integer spaces are {@code INTEGER_SPACE_ZERO + width} and fractional spaces are
+     * {@code FRACTIONAL_SPACE_ZERO + n} for a width of {@code n/FRACTIONAL_DENOMINATOR}.
+     * The special spaces (infinity, newlayer) are not part of the encoding.
+     * </p>
+     *
+     * @param codepoint the codepoint
+     * @return the width in pixels, or NaN if the codepoint is not an integer or fractional space
+     */
+    public static double width(int codepoint) {
+        if (isIntegerSpaceCodepoint(codepoint)) {
+            return codepoint - INTEGER_SPACE_ZERO;
+        }
+        if (isFractionalSpaceCodepoint(codepoint)) {
+            return (codepoint - FRACTIONAL_SPACE_ZERO) / (double) FRACTIONAL_DENOMINATOR;
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Checks if a codepoint is an integer or fractional space, see {@link #width(int)}.
+     */
+    public static boolean isSpaceCodepoint(int codepoint) {
+        return isIntegerSpaceCodepoint(codepoint) || isFractionalSpaceCodepoint(codepoint);
+    }
+
     /**
      * Offsets a string by a given amount and then returns it back by the same amount.
      * <p>
@@ -0,0 +1,219 @@
+package io.calinea.traversal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Depth-first traversal of component trees, whose depth is not limited by the thread stack.
+ * <p>
+ * Trees built from user input can be thousands of levels deep ({@code append} chains),
+ * which would overflow the stack of a thread with a small stack if walked recursively.
+ * </p>
+ * <p>
+ * The first {@value #RECURSION_LIMIT} levels are walked recursively, which is faster and allocation-free
+ * for the usual shallow trees. Deeper subtrees are walked with an explicit stack, whose depth only grows a heap array,
+ * so the thread stack used stays bounded.
+ * </p>
+ */
+public final class ComponentTraversal {
+
+    private static final int RECURSION_LIMIT = 64;
+    private static final int INITIAL_DEPTH = 16;
+
+    private ComponentTraversal() {
+    }
+
+    /**
+     * Walks a tree depth-first: each component is entered, then its children are walked in order, then it is exited.
+     *
+     * @param root the root of the tree
+     * @param visitor the visitor
+     * @param initialState the parent state given to the root
+     */
+    public static <S> void walk(Component root, IComponentVisitor<S> visitor, S initialState) {
+        walkRecursively(root, visitor, initialState, 0);
+    }
+
+    private static <S> void walkRecursively(Component component, IComponentVisitor<S> visitor, S parentState, int depth) {
+        S state = visitor.enter(component, parentState);
+        List<Component> children = visitor.children(component, state);
+        for (int i = 0; i < children.size(); i++) {
+            if (depth < RECURSION_LIMIT) {
+                walkRecursively(children.get(i), visitor, state, depth + 1);
+            } else {
+                walkIteratively(children.get(i), visitor, state);
+            }
+        }
+        visitor.exit(component, state);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> void walkIteratively(Component root, IComponentVisitor<S> visitor, S initialState) {
+        S rootState = visitor.enter(root, initialState);
+        List<Component> rootChildren = visitor.children(root, rootState);
+        if (rootChildren.isEmpty()) {
+            visitor.exit(root, rootState);
+            return;
+        }
+
+        Stack stack = new Stack();
+        stack.push(root, rootChildren, rootState);
+        while (stack.depth > 0) {
+            int top = stack.depth - 1;
+            List<Component> children = stack.children[top];
+            int index = stack.next[top];
+
+            if (index < children.size()) {
+                stack.next[top] = index + 1;
+                Component child = children.get(index);
+                S childState = visitor.enter(child, (S) stack.values[top]);
+                List<Component> grandChildren = visitor.children(child, childState);
+                if (grandChildren.isEmpty()) {
+                    visitor.exit(child, childState);
+                } else {
+                    stack.push(child, grandChildren, childState);
+                }
+            } else {
+                visitor.exit(stack.components[top], (S) stack.values[top]);
+                stack.pop();
+            }
+        }
+    }
+
+    /**
+     * Transforms every component of a tree, from the root down to the leaves.
+     * <p>
+     * A component is rebuilt only if one of its children changed, with the unchanged children shared,
+     * so an unchanged tree is returned as is without any copy.
+     * </p>
+     *
+     * @param root the root of the tree
+     * @param transformer the transformation applied to each component, before its children
+     * @return the transformed tree
+     */
+    public static Component transform(Component root, IComponentTransformer transformer) {
+        return transformRecursively(root, transformer, 0);
+    }
+
+    private static Component transformRecursively(Component component, IComponentTransformer transformer, int depth) {
+        Component transformed = transformer.transform(component);
+
+        // Children copied only from the first one that changed
+        List<Component> children = transformed.children();
+        @Nullable List<Component> transformedChildren = null;
+        for (int i = 0; i < children.size(); i++) {
+            Component child = children.get(i);
+            Component transformedChild = depth < RECURSION_LIMIT
+                ? transformRecursively(child, transformer, depth + 1)
+                : transformIteratively(child, transformer);
+            if (transformedChildren == null && transformedChild != child) {
+                transformedChildren = new ArrayList<>(children.size());
+                transformedChildren.addAll(children.subList(0, i));
+            }
+            if (transformedChildren != null) {
+                transformedChildren.add(transformedChild);
+            }
+        }
+        return transformedChildren != null ? transformed.children(transformedChildren) : transformed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Component transformIteratively(Component root, IComponentTransformer transformer) {
+        Component transformedRoot = transformer.transform(root);
+        if (transformedRoot.children().isEmpty()) {
+            return transformedRoot;
+        }
+
+        // The value of a frame is the list of its transformed children, created from the first one that changed
+        Stack stack = new Stack();
+        stack.push(transformedRoot, transformedRoot.children(), null);
+        while (true) {
+            int top = stack.depth - 1;
+            List<Component> children = stack.children[top];
+            int index = stack.next[top];
+
+            if (index < children.size()) {
+                stack.next[top] = index + 1;
+                Component child = children.get(index);
+                Component transformed = transformer.transform(child);
+                if (transformed.children().isEmpty()) {
+                    stack.addTransformedChild(top, child, transformed);
+                } else {
+                    stack.push(transformed, transformed.children(), null);
+                }
+                continue;
+            }
+
+            Component component = stack.components[top];
+            @Nullable List<Component> transformedChildren = (List<Component>) stack.values[top];
+            Component result = transformedChildren != null ? component.children(transformedChildren) : component;
+            stack.pop();
+            if (stack.depth == 0) {
+                return result;
+            }
+
+            int parent = stack.depth - 1;
+            stack.addTransformedChild(parent, stack.children[parent].get(stack.next[parent] - 1), result);
+        }
+    }
+
+    /**
+     * The frames of a traversal, as parallel arrays: the component, the children to walk,
+     * the index of the next child, and a value (the state of a walk, the transformed children of a transform).
+     */
+    private static final class Stack {
+        private @Nullable Component[] components = new Component[INITIAL_DEPTH];
+        private @Nullable List<Component>[] children = newChildrenArray(INITIAL_DEPTH);
+        private int[] next = new int[INITIAL_DEPTH];
+        private @Nullable Object[] values = new Object[INITIAL_DEPTH];
+        private int depth;
+
+        @SuppressWarnings("unchecked")
+        private static @Nullable List<Component>[] newChildrenArray(int length) {
+            return (@Nullable List<Component>[]) new List<?>[length];
+        }
+
+        private void push(Component component, List<Component> componentChildren, @Nullable Object value) {
+            if (depth == components.length) {
+                int length = depth * 2;
+                components = Arrays.copyOf(components, length);
+                children = Arrays.copyOf(children, length);
+                next = Arrays.copyOf(next, length);
+                values = Arrays.copyOf(values, length);
+            }
+            components[depth] = component;
+            children[depth] = componentChildren;
+            next[depth] = 0;
+            values[depth] = value;
+            depth++;
+        }
+
+        // Clears the slots, so that the stack does not retain the tree
+        private void pop() {
+            depth--;
+            components[depth] = null;
+            children[depth] = null;
+            values[depth] = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void addTransformedChild(int frame, Component child, Component transformedChild) {
+            @Nullable List<Component> transformedChildren = (List<Component>) values[frame];
+            if (transformedChildren == null) {
+                if (transformedChild == child) {
+                    return;
+                }
+                List<Component> siblings = children[frame];
+                transformedChildren = new ArrayList<>(siblings.size());
+                transformedChildren.addAll(siblings.subList(0, next[frame] - 1));
+                values[frame] = transformedChildren;
+            }
+            transformedChildren.add(transformedChild);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.calinea.traversal;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Transforms each component of a tree, see {@link ComponentTraversal#transform(Component, IComponentTransformer)}.
+ */
+@FunctionalInterface
+public interface IComponentTransformer {
+
+    /**
+     * Transforms a component, before its children.
+     * The children of the returned component are transformed next.
+     *
+     * @return the transformed component, or the component itself if unchanged
+     */
+    Component transform(Component component);
+}
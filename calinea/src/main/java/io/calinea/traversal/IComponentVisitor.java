@@ -0,0 +1,39 @@
+package io.calinea.traversal;
+
+import java.util.List;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Visitor of a component tree, walked depth-first by {@link ComponentTraversal#walk(Component, IComponentVisitor, Object)}.
+ * <p>
+ * Each visit returns a state that is passed down to the children of the component,
+ * for example the effective bold flag, or the component whose children should be walked.
+ * </p>
+ *
+ * @param <S> the type of the state passed down the tree
+ */
+public interface IComponentVisitor<S> {
+
+    /**
+     * Visits a component, before its children.
+     *
+     * @param component the component
+     * @param parentState the state returned for the parent, or the initial state for the root
+     * @return the state of this component, passed to its children and to {@link #exit(Component, Object)}
+     */
+    S enter(Component component, S parentState);
+
+    /**
+     * Gets the children to walk after entering a component. By default, its own children.
+     */
+    default List<Component> children(Component component, S state) {
+        return component.children();
+    }
+
+    /**
+     * Visits a component, after its children.
+     */
+    default void exit(Component component, S state) {
+    }
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package io.calinea.traversal;
+
+import org.jspecify.annotations.NullMarked;
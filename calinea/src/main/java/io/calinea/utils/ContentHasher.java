@@ -0,0 +1,66 @@
+package io.calinea.utils;
+
+/**
+ * Accumulates a 64-bit hash of some content, to tell whether it changed between two reads of a pack.
+ * <p>
+ * Unlike {@link Object#hashCode()}, every value is hashed in full (strings char by char),
+ * and 64 bits make an accidental match between two different contents negligible.
+ * </p>
+ */
+public final class ContentHasher {
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long hash = 0xCBF29CE484222325L;
+    private long length;
+
+    public ContentHasher putLong(long value) {
+        hash = Long.rotateLeft(hash ^ (value * MULTIPLIER), 29) * 0xBF58476D1CE4E5B9L;
+        length++;
+        return this;
+    }
+
+    public ContentHasher putInt(int value) {
+        return putLong(value);
+    }
+
+    public ContentHasher putDouble(double value) {
+        return putLong(Double.doubleToLongBits(value));
+    }
+
+    public ContentHasher putBoolean(boolean value) {
+        return putLong(value ? 1 : 0);
+    }
+
+    public ContentHasher putString(String value) {
+        putInt(value.length());
+
+        // Four chars per step
+        int index = 0;
+        for (; index + 4 <= value.length(); index += 4) {
+            putLong((long) value.charAt(index) << 48
+                | (long) value.charAt(index + 1) << 32
+                | (long) value.charAt(index + 2) << 16
+                | value.charAt(index + 3));
+        }
+        long tail = 0;
+        for (; index < value.length(); index++) {
+            tail = tail << 16 | value.charAt(index);
+        }
+        return putLong(tail);
+    }
+
+    /**
+     * Gets the hash of everything put so far.
+     */
+    public long hash() {
+        // Final avalanche (from MurmurHash3), so that close contents give unrelated hashes
+        long h = hash ^ length;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
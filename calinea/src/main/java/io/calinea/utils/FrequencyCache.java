@@ -0,0 +1,204 @@
+package io.calinea.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A size-bounded concurrent cache that evicts the least frequently used entries.
+ * <p>
+ * Reads are lock-free: a hit only bumps the (approximate) use counter of the entry.
+ * When the cache grows past its maximum size, one thread evicts a batch of the least used entries
+ * and halves the counters of the others, so entries that were hot a long time ago eventually leave too.
+ * The batch is found by counting the entries of each frequency instead of sorting them, and is a tenth of the cache,
+ * so the eviction costs a constant amortized time per insertion. The size is checked again after each batch,
+ * so concurrent insertions only exceed the maximum size while they are in progress.
+ * </p>
+ * <p>
+ * The computation of a missing value is not synchronized: two threads missing the same key at the same time
+ * may both compute it, which is fine for pure functions like measuring a text.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class FrequencyCache<K, V> {
+
+    private static final int EVICTION_BATCH_DIVISOR = 10; // evict 10% of the entries at once
+    private static final int FREQUENCY_BUCKETS = 64; // entries used more often are equally hot for the eviction
+
+    private final int maximumSize;
+    private final Map<K, Entry<V>> entries;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code maximumSize} entries.
+     *
+     * @param maximumSize the maximum number of entries, must be positive
+     */
+    public FrequencyCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+    }
+
+    /**
+     * Gets the cached value of a key, computing and caching it on a miss.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        value = loader.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Gets the cached value of a key, counting a hit or a miss.
+     * @return the value, or null if not cached
+     */
+    public @Nullable V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        entry.frequency++; // racy on purpose, the counter only needs to be approximate
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value));
+        if (entries.size() > maximumSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Copies the entries of another cache accepted by the filter, keeping their use counters.
+     * Used to carry the still valid entries over to a new cache, e.g. after a reload.
+     */
+    public void putAll(FrequencyCache<K, V> other, Predicate<? super K> filter) {
+        for (Map.Entry<K, Entry<V>> entry : other.entries.entrySet()) {
+            if (entries.size() >= maximumSize) {
+                return;
+            }
+            if (filter.test(entry.getKey())) {
+                Entry<V> copy = new Entry<>(entry.getValue().value);
+                copy.frequency = entry.getValue().frequency;
+                entries.put(entry.getKey(), copy);
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the ratio of hits over lookups, or 0 if nothing was looked up yet.
+     */
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private void evict() {
+        // One thread evicts for everybody, the others keep going. The size is checked again once the lock is released,
+        // for the insertions of the threads that could not take it meanwhile.
+        while (entries.size() > maximumSize && evictionLock.tryLock()) {
+            try {
+                while (entries.size() > maximumSize) {
+                    evictBatch(entries.size() - maximumSize + maximumSize / EVICTION_BATCH_DIVISOR);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    // Evicts the least used entries in two passes, without copying nor sorting them: the first one counts the entries
+    // of each frequency, which gives the frequency below which entries are evicted, the second one evicts them and ages the others.
+    private void evictBatch(int toEvict) {
+        int[] counts = new int[FREQUENCY_BUCKETS];
+        for (Entry<V> entry : entries.values()) {
+            counts[bucket(entry)]++;
+        }
+
+        // All the entries of the buckets below the threshold are evicted, and the rest of the batch from the threshold bucket
+        int threshold = 0;
+        int below = 0;
+        while (threshold < FREQUENCY_BUCKETS - 1 && below + counts[threshold] < toEvict) {
+            below += counts[threshold++];
+        }
+        int fromThreshold = toEvict - below;
+
+        for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+            Entry<V> entry = candidate.getValue();
+            int bucket = bucket(entry);
+            if (bucket < threshold || (bucket == threshold && fromThreshold-- > 0)) {
+                if (entries.remove(candidate.getKey(), entry)) {
+                    evictions.increment();
+                }
+            } else {
+                entry.frequency >>>= 1; // Age the survivors
+            }
+        }
+    }
+
+    // Counters change concurrently, each pass reads them once per entry
+    private static int bucket(Entry<?> entry) {
+        return Math.min(Math.max(0, entry.frequency), FREQUENCY_BUCKETS - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FrequencyCache{size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.2f}",
+            size(), maximumSize, hits(), misses(), evictions(), hitRate());
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile int frequency;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+}
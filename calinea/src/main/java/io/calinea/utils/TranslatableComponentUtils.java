@@ -1,6 +1,12 @@
 package io.calinea.utils;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import org.jspecify.annotations.Nullable;
+
+import io.calinea.pack.translation.TranslationPattern;
 import io.papermc.paper.text.PaperComponents;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
@@ -12,16 +18,12 @@ public class TranslatableComponentUtils {
 
     public final static String PLACEHOLDER = "%s";
     public final static Component DUMMY_PLACEHOLDER_COMPONENT = Component.text(PLACEHOLDER);
-    private final static List<TranslationArgument> DUMMY_ARGUMENTS = List.of(
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT),
-        TranslationArgument.component(DUMMY_PLACEHOLDER_COMPONENT)
-    );
+
+    // Noncharacters, reserved for internal use, so they cannot be in a translation
+    private final static char MARKER_BASE = '\uFDD0';
+    private final static List<TranslationArgument> MARKER_ARGUMENTS = IntStream.range(0, 8)
+        .mapToObj(i -> TranslationArgument.component(Component.text(String.valueOf((char) (MARKER_BASE + i)))))
+        .toList();
 
     /**
      * Flattens the TranslatableComponent into a TextComponent which contains the English translation and the arguments as children.
@@ -31,8 +33,7 @@ public class TranslatableComponentUtils {
      * @return A TextComponent with the English translation and arguments inserted.
      */
     public static TextComponent flattenInEnglish(TranslatableComponent component) {
-        String translation = extractEnglishTranslation(component);
-        return buildFromPattern(component, translation);
+        return buildFromPattern(component, extractEnglishPattern(component));
     }
     
     /**
@@ -40,32 +41,36 @@ public class TranslatableComponentUtils {
      * If there are insufficient arguments, {@link #DUMMY_PLACEHOLDER_COMPONENT} will be used for ALL arguments.
      *
      * @param original The original TranslatableComponent (for arguments, style, children).
-     * @param translation The translation pattern with %s placeholders.
+     * @param translation The translation pattern with %s (or positional %1$s) placeholders.
      * @return A TextComponent with the translation and arguments inserted.
      */
     public static TextComponent buildFromPattern(TranslatableComponent original, String translation) {
+        return buildFromPattern(original, TranslationPattern.compile(translation));
+    }
 
-        String[] parts = translation.split("%s");
-        int numberOfPlaceholders = parts.length - 1;
-        List<Component> arguments = original.arguments().stream()
-            .map(c -> c.asComponent())
-            .toList();
+    /**
+     * Builds a TextComponent from a compiled translation pattern, using the original component's arguments, style, and children.
+     * If there are insufficient arguments, {@link #DUMMY_PLACEHOLDER_COMPONENT} will be used for ALL arguments.
+     *
+     * @param original The original TranslatableComponent (for arguments, style, children).
+     * @param pattern The compiled translation pattern.
+     * @return A TextComponent with the translation and arguments inserted.
+     */
+    public static TextComponent buildFromPattern(TranslatableComponent original, TranslationPattern pattern) {
+        List<TranslationArgument> arguments = original.arguments();
         
         // Not enough arguments to fill all placeholders -> replace all by the placeholder
-        boolean insufficientArguments = false;
-        if (arguments.size() < numberOfPlaceholders) {
-            insufficientArguments = true;
-        }
+        boolean insufficientArguments = arguments.size() < pattern.requiredArguments();
 
         // Apply parts and arguments
         TextComponent translationPart = Component.empty();
-        for (int i = 0; i < numberOfPlaceholders; i++) {
-            String part = parts[i];
-            translationPart = translationPart.append(Component.text(part), getPlaceholder(insufficientArguments, arguments, i));
+        for (int i = 0; i < pattern.placeholderCount(); i++) {
+            translationPart = translationPart.append(Component.text(pattern.literal(i)),
+                getPlaceholder(insufficientArguments, arguments, pattern.argumentIndex(i)));
         }
 
         // Append the last part
-        translationPart = translationPart.append(Component.text(parts[parts.length - 1]));
+        translationPart = translationPart.append(Component.text(pattern.literal(pattern.placeholderCount())));
 
         // Then append the child (in a separate node)
         TextComponent childrenPart = Component.empty().append(original.children());
@@ -78,34 +83,82 @@ public class TranslatableComponentUtils {
         return result;
     }
 
-    private static Component getPlaceholder(boolean insufficientArguments, List<Component> arguments, int argIndex) {
+    private static Component getPlaceholder(boolean insufficientArguments, List<TranslationArgument> arguments, int argIndex) {
         if (!insufficientArguments) {
-            return arguments.get(argIndex);
+            return arguments.get(argIndex).asComponent();
         }
         return DUMMY_PLACEHOLDER_COMPONENT;
     }
 
     /**
      * Extracts the English translation from a TranslatableComponent, removing any children.
-     * and replacing arguments with {@link #DUMMY_PLACEHOLDER_COMPONENT}.
+     * and replacing arguments with their placeholder ({@code %s}, or {@code %1$s} if they are not in order).
      *
      * @param component The TranslatableComponent to extract from.
-     * @return The English translation as a String.
+     * @return The English translation as a String, in the client format.
      */
     public static String extractEnglishTranslation(TranslatableComponent component) {
+        return extractEnglishPattern(component).pattern();
+    }
+
+    /**
+     * Extracts the English translation pattern from a TranslatableComponent, ignoring its children and arguments.
+     * <p>
+     * The component is flattened with a marker per argument, so the pattern keeps which argument goes where,
+     * and a literal {@code %} of the translation stays a literal.
+     * </p>
+     *
+     * @param component The TranslatableComponent to extract from.
+     * @return The English translation as a compiled pattern.
+     */
+    public static TranslationPattern extractEnglishPattern(TranslatableComponent component) {
+        return flattenEnglishPattern(component);
+    }
+
+    /**
+     * Extracts the English translation pattern from a TranslatableComponent, like {@link #extractEnglishPattern(TranslatableComponent)}.
+     * <p>
+     * The extracted pattern only depends on the key and the fallback, and flattening is comparatively slow,
+     * so patterns are cached by {@link EnglishPatternKey}. The cache belongs to a layout context,
+     * so it is replaced with the context on reload.
+     * </p>
+     *
+     * @param component The TranslatableComponent to extract from.
+     * @param cache The cache of the patterns, or null to extract it every time.
+     * @return The English translation as a compiled pattern.
+     */
+    public static TranslationPattern extractEnglishPattern(TranslatableComponent component,
+            @Nullable FrequencyCache<EnglishPatternKey, TranslationPattern> cache) {
+        if (cache == null) {
+            return flattenEnglishPattern(component);
+        }
+        return cache.get(EnglishPatternKey.of(component), key -> flattenEnglishPattern(component));
+    }
+
+    private static TranslationPattern flattenEnglishPattern(TranslatableComponent component) {
         component = component.children(List.of()); // Clear children, (calculated separately)
-        component = component.arguments(DUMMY_ARGUMENTS); // Place dummy arguments for argument counting afterwards
+        component = component.arguments(MARKER_ARGUMENTS); // Place markers to locate the arguments afterwards
 
-        StringBuilder translatedText = new StringBuilder();
+        TranslationPattern.Builder pattern = TranslationPattern.builder();
+        StringBuilder literal = new StringBuilder();
         PaperComponents.flattener()
             .flatten(component, new FlattenerListener() {
                 @Override
                 public void component(String text) {
-                    translatedText.append(text);
+                    literal.append(text);
                 }
             });
-        
-        return translatedText.toString();
+
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            int argument = c - MARKER_BASE;
+            if (argument >= 0 && argument < MARKER_ARGUMENTS.size()) {
+                pattern.argument(argument);
+            } else {
+                pattern.literal(String.valueOf(c));
+            }
+        }
+        return pattern.build();
     }
 
     public static int countPlaceholders(String translation) {
@@ -119,4 +172,33 @@ public class TranslatableComponentUtils {
 
         return placeholderCount;
     }
+
+    /**
+     * The key of an English pattern: the translation key and the fallback of a component.
+     */
+    public static final class EnglishPatternKey {
+        private final String key;
+        private final @Nullable String fallback;
+
+        private EnglishPatternKey(String key, @Nullable String fallback) {
+            this.key = key;
+            this.fallback = fallback;
+        }
+
+        public static EnglishPatternKey of(TranslatableComponent component) {
+            return new EnglishPatternKey(component.key(), component.fallback());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof EnglishPatternKey other
+                && key.equals(other.key)
+                && Objects.equals(fallback, other.fallback);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + Objects.hashCode(fallback);
+        }
+    }
 }
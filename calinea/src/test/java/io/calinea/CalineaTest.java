@@ -2,29 +2,77 @@ package io.calinea;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import net.kyori.adventure.text.BlockNBTComponent.LocalPos;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.ScoreComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.object.ObjectContents;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import net.kyori.adventure.key.Key;
+import io.calinea.config.CalineaConfig;
 import io.calinea.config.CalineaGeneratorDefault;
 import io.calinea.layout.Alignment;
 import io.calinea.layout.LayoutContext;
+import io.calinea.pack.PackFileWatcher;
 import io.calinea.pack.PackInfo;
+import io.calinea.pack.font.FixedWidth;
+import io.calinea.pack.font.FontFace;
+import io.calinea.pack.font.FontInfo;
+import io.calinea.pack.font.FontsInfo;
+import io.calinea.pack.font.ResolvedFont;
+import io.calinea.pack.font.WidthTable;
+import io.calinea.pack.reader.StreamingJsonPackReader;
+import io.calinea.pack.translation.MappedStrings;
+import io.calinea.pack.translation.TranslationInfo;
+import io.calinea.pack.translation.TranslationPattern;
+import io.calinea.pack.translation.TranslationsInfo;
 import io.calinea.resolver.ComponentResolver;
+import io.calinea.resolver.Client.ForcedClientComponentResolver;
+import io.calinea.resolver.Client.IClientComponentResolver;
+import io.calinea.resolver.Client.TranslatableComponentResolver;
+import io.calinea.segmentation.ComponentLine;
 import io.calinea.segmentation.SegmentationResult;
+import io.calinea.segmentation.handlers.IComponentLayoutHandler;
+import io.calinea.segmentation.measurer.ComponentMeasurer;
+import io.calinea.segmentation.measurer.ComponentMeasurerConfig;
+import io.calinea.segmentation.measurer.ComponentWidthMemo;
+import io.calinea.segmentation.measurer.IComponentMeasurer;
+import io.calinea.segmentation.measurer.TranslationWidthKey;
 import io.calinea.segmentation.splitter.TextTokenizer;
+import io.calinea.space.SpaceFont;
+import io.calinea.traversal.ComponentTraversal;
+import io.calinea.traversal.IComponentVisitor;
+import io.calinea.utils.FrequencyCache;
+import io.calinea.utils.TranslatableComponentUtils;
+import io.calinea.utils.TranslatableComponentUtils.EnglishPatternKey;
 
 class CalineaTest {
 
@@ -100,6 +148,18 @@ class CalineaTest {
             double width = Calinea.measure(result);
             assertEquals(100, width, DELTA,"fillLines should fill to the specified width");
         }
+
+        @Test
+        void testPaddingIsRoundedDown() {
+            double padding = 10 + 1.75 / FixedWidth.UNITS_PER_PIXEL;
+            Component result = Calinea.layout(Component.text("Test"))
+                .width(100)
+                .padding(padding)
+                .build();
+
+            assertEquals(SpaceFont.space(padding), ((TextComponent) result.children().getFirst()).content(),
+                "Padding should never exceed the requested width");
+        }
     }
 
     @Nested
@@ -215,6 +275,58 @@ class CalineaTest {
             assertEquals(expectedWidth, width, DELTA,"Bold text width should be increased by approx 1 per character");
         }
 
+        @Test
+        void testMeasureInheritedBold() {
+            Component bold = Component.text("Bold ", Style.style(TextDecoration.BOLD));
+            Component notBold = Component.text("Plain").decoration(TextDecoration.BOLD, false);
+            Component keybind = Component.keybind("key.jump");
+
+            // Children inherit the bold flag unless they set their own
+            double width = Calinea.measure(bold.append(notBold, keybind));
+            double expected = Calinea.measure(bold) + Calinea.measure(Component.text("Plain"))
+                + Calinea.measure(keybind.decorate(TextDecoration.BOLD));
+            assertEquals(expected, width, DELTA, "Inherited bold should apply to any component type, and an explicit false should stop it");
+
+            LayoutContext fixedPoint = Calinea.createContext(Calinea.defaultLayoutContext().packInfo()).fixedPointWidths(true).build();
+            assertEquals(expected, fixedPoint.componentMeasurer().measure(bold.append(notBold, keybind)), DELTA,
+                "Fixed-point widths should inherit the same way");
+        }
+
+        @Test
+        void testMeasureAll() {
+            // Leaves, trees, bold trees and atomic components, enough for the parallel mode
+            List<Component> components = new ArrayList<>();
+            for (int i = 0; i < IComponentMeasurer.PARALLEL_THRESHOLD * 2; i++) {
+                components.add(switch (i % 4) {
+                    case 0 -> Component.text("Player" + i);
+                    case 1 -> Component.text("[" + i + "] ", NamedTextColor.GRAY).append(Component.text("Name"));
+                    case 2 -> Component.text().decorate(TextDecoration.BOLD).append(Component.text("Top " + i)).build();
+                    default -> Component.keybind("key.forward");
+                });
+            }
+
+            double[] expected = components.stream().mapToDouble(Calinea::measure).toArray();
+            assertArrayEquals(expected, Calinea.measureAll(components, false), DELTA);
+            assertArrayEquals(expected, Calinea.measureAll(components, true), DELTA, "Parallel widths should match, in order");
+
+            LayoutContext fixedPoint = Calinea.createContext(Calinea.defaultLayoutContext().packInfo()).fixedPointWidths(true).build();
+            IComponentMeasurer fixedPointMeasurer = fixedPoint.componentMeasurer();
+            double[] expectedFixedPoint = components.stream().mapToDouble(fixedPointMeasurer::measure).toArray();
+            assertArrayEquals(expectedFixedPoint, fixedPointMeasurer.measureAll(components), DELTA);
+            assertEquals(0, Calinea.measureAll(List.of(), true).length);
+        }
+
+        @Test
+        void testMeasureLatin1AndSupplementary() {
+            FontsInfo fontsInfo = Calinea.defaultLayoutContext().packInfo().fontsInfo();
+            String latin1 = "Héllo ÿ";
+            String mixed = latin1 + SpaceFont.space(3); // supplementary codepoint, outside the Latin-1 fast path
+
+            double expectedLatin1 = latin1.codePoints().mapToDouble(c -> fontsInfo.getWidth(Style.DEFAULT_FONT, c)).sum();
+            assertEquals(expectedLatin1, Calinea.measure(Component.text(latin1)), DELTA, "Latin-1 fast path should match the per-codepoint widths");
+            assertEquals(expectedLatin1 + 3, Calinea.measure(Component.text(mixed)), DELTA, "Supplementary codepoints should fall back to the codepoint iterator");
+        }
+
         @Test
         void testCustomFont() {
             double width = Calinea.measure(Component.text("Hello").font(Key.key("minecraft:alt")));
@@ -244,6 +356,380 @@ class CalineaTest {
         }
     }
 
+    @Nested
+    class FontResolution {
+        @Test
+        void testCircularReferences() {
+            FontInfo first = new FontInfo(Key.key("test:first"));
+            FontInfo second = new FontInfo(Key.key("test:second"));
+            first.addReference(second.getFontKey());
+            second.addReference(first.getFontKey());
+            first.setWidth('A', 3);
+            second.setWidth('B', 7);
+
+            FontsInfo fontsInfo = new FontsInfo(List.of(first, second));
+            fontsInfo.compile();
+
+            assertEquals(3, fontsInfo.getWidth(first.getFontKey(), 'A'), DELTA, "Direct width should be used");
+            assertEquals(7, fontsInfo.getWidth(first.getFontKey(), 'B'), DELTA, "Width should be resolved through the reference");
+            assertEquals(3, fontsInfo.getWidth(second.getFontKey(), 'A'), DELTA, "Width should be resolved through the circular reference");
+            assertEquals(List.of(first.getFontKey(), second.getFontKey()), fontsInfo.getResolvedFont(first.getFontKey()).getChain(), "Chain should contain each font once");
+        }
+
+        @Test
+        void testReferenceOrder() {
+            FontInfo root = new FontInfo(Key.key("test:root"));
+            FontInfo high = new FontInfo(Key.key("test:high"));
+            FontInfo low = new FontInfo(Key.key("test:low"));
+            root.addReference(high.getFontKey());
+            root.addReference(Key.key("test:missing"));
+            root.addReference(low.getFontKey());
+            high.setWidth('A', 4);
+            low.setWidth('A', 9);
+            low.setWidth('B', 6);
+
+            FontsInfo fontsInfo = new FontsInfo(List.of(root, high, low));
+
+            assertEquals(4, fontsInfo.getWidth(root.getFontKey(), 'A'), DELTA, "First reference defining the character should win");
+            assertEquals(6, fontsInfo.getWidth(root.getFontKey(), 'B'), DELTA, "Missing references should be skipped");
+            assertEquals(fontsInfo.getDefaultWidth(), fontsInfo.getWidth(root.getFontKey(), 'C'), DELTA, "Unknown character should use the default width");
+        }
+
+        @Test
+        void testArithmeticSpaces() {
+            int space3 = SpaceFont.space(3).codePointAt(0);
+            int space5 = SpaceFont.space(5).codePointAt(0);
+            FontInfo root = new FontInfo(Key.key("test:root"));
+            FontInfo spaces = new FontInfo(Key.key("test:spaces"));
+            FontInfo low = new FontInfo(Key.key("test:low"));
+            root.addReference(spaces.getFontKey());
+            root.addReference(low.getFontKey());
+            root.setWidth(space3, 99);
+            low.setWidth(space5, 42);
+            low.setWidth('A', 6);
+            for (int width = SpaceFont.MIN_WIDTH; width <= SpaceFont.MAX_WIDTH; width++) {
+                spaces.setWidth(SpaceFont.INTEGER_SPACE_ZERO + width, width);
+            }
+            for (int numerator = -SpaceFont.FRACTIONAL_DENOMINATOR; numerator <= SpaceFont.FRACTIONAL_DENOMINATOR; numerator++) {
+                spaces.setWidth(SpaceFont.FRACTIONAL_SPACE_ZERO + numerator, numerator / (double) SpaceFont.FRACTIONAL_DENOMINATOR);
+            }
+
+            assertTrue(spaces.compactArithmeticSpaces(), "Font following the SpaceFont encoding should be compacted");
+            assertTrue(spaces.getWidthTable().isEmpty(), "Compacted space widths should not be stored");
+            assertFalse(low.compactArithmeticSpaces(), "Incomplete space font should not be compacted");
+
+            FontsInfo fontsInfo = new FontsInfo(List.of(root, spaces, low));
+            assertEquals(99, fontsInfo.getWidth(root.getFontKey(), space3), DELTA, "Font before the arithmetic font should win");
+            assertEquals(5, fontsInfo.getWidth(root.getFontKey(), space5), DELTA, "Arithmetic font should win over later fonts");
+            assertEquals(0.25, fontsInfo.getWidth(root.getFontKey(), SpaceFont.space(0.25).codePointAt(0)), "Fractional space should be computed exactly");
+            assertEquals(6, fontsInfo.getWidth(root.getFontKey(), 'A'), DELTA, "Other widths of later fonts should still resolve");
+        }
+
+        @Test
+        void testFontFaces() {
+            FontInfo first = new FontInfo(Key.key("test:first"));
+            FontInfo second = new FontInfo(Key.key("test:second"));
+            second.setWidth('A', 4);
+
+            FontsInfo fontsInfo = new FontsInfo(List.of(first, second));
+            FontFace bold = fontsInfo.getFace(second.getFontKey(), true);
+            FontFace missing = fontsInfo.getFace(Key.key("test:missing"), false);
+
+            assertSame(bold, fontsInfo.getFace(second.getFontKey(), true), "Faces should be interned");
+            assertSame(missing, fontsInfo.getFace(Key.key("test:missing"), false), "Faces of missing fonts should be interned");
+            assertEquals(1, bold.getFontId(), "Font ids should follow declaration order");
+            assertSame(fontsInfo.getResolvedFont(1), bold.getFont(), "Font id should resolve to the same font");
+            assertEquals(5, bold.getWidth('A'), DELTA, "Bold face should include the bold offset");
+            assertEquals(FontFace.MISSING_FONT_ID, missing.getFontId(), "Missing font should have no id");
+            assertEquals(fontsInfo.getDefaultWidth(), missing.getWidth('A'), DELTA, "Missing font should use the default width");
+        }
+    }
+
+    @Nested
+    class WidthStorage {
+        @Test
+        void testMixedWidths() {
+            WidthTable table = new WidthTable();
+            table.put('A', 6);
+            table.put('B', -8192);
+            table.put('C', 0.5);
+            table.put('D', 1.0 / 4800);
+            table.put(0x1F600, 9);
+            table.put(0x10FFFF, 3);
+
+            assertEquals(6, table.get('A'), "Integer width should be stored exactly");
+            assertEquals(-8192, table.get('B'), "Negative width should be stored exactly");
+            assertEquals(0.5, table.get('C'), "Float width should be stored exactly");
+            assertEquals(1.0 / 4800, table.get('D'), "Fractional width should not be rounded");
+            assertEquals(6, table.get('A'), "Promoting the page should keep previous widths");
+            assertEquals(9, table.get(0x1F600), "Supplementary plane width should be stored");
+            assertEquals(3, table.get(0x10FFFF), "Last codepoint width should be stored");
+            assertTrue(Double.isNaN(table.get('E')), "Unset codepoint should have no width");
+            assertTrue(Double.isNaN(table.get(0x20000)), "Unset page should have no width");
+            assertEquals(6, table.size(), "Table should count each codepoint once");
+        }
+
+        @Test
+        void testSharedPages() {
+            WidthTable source = new WidthTable();
+            source.put('A', 6);
+            WidthTable merged = new WidthTable();
+            merged.putAllAbsent(source);
+
+            merged.put('B', 4);
+            source.put('A', 7);
+
+            assertEquals(6, merged.get('A'), "Shared page should be copied before the source is modified");
+            assertTrue(Double.isNaN(source.get('B')), "Shared page should be copied before the merged table is modified");
+        }
+
+        @Test
+        void testMappedPage() {
+            long[] presence = new long[WidthTable.PAGE_SIZE / Long.SIZE];
+            presence[1] = 1L << ('A' - 64) | 1L << ('C' - 64);
+            ByteBuffer values = ByteBuffer.allocate(2 + 2 * Float.BYTES);
+            values.position(2); // the values start anywhere in the buffer
+            values.putFloat(2, 6).putFloat(6, 0.5f);
+            WidthTable table = new WidthTable();
+            table.putMappedPage(0, presence, values, Float.BYTES);
+
+            assertEquals(6, table.get('A'), "Mapped width should be read in place");
+            assertEquals(0.5, table.get('C'), "Mapped width should be found by its rank in the page");
+            assertTrue(Double.isNaN(table.get('B')), "Absent slot should have no width");
+            assertEquals(2, table.size(), "Mapped page should be counted");
+
+            table.put('B', 4);
+            values.putFloat(2, 7);
+            assertEquals(6, table.get('A'), "Mapped page should be copied before being modified");
+            assertEquals(4, table.get('B'), "Copied page should be modifiable");
+        }
+    }
+
+    @Nested
+    class FixedPoint {
+        @Test
+        void testExactAccumulation() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .fixedPointWidths(true)
+                .build();
+
+            Component smallestSpaces = Component.text(SpaceFont.spaceUnits(1).repeat(FixedWidth.UNITS_PER_PIXEL));
+            assertEquals(1.0, context.componentMeasurer().measure(smallestSpaces), "4800 spaces of 1/4800 px should sum to exactly 1 px");
+        }
+
+        @Test
+        void testExactAlignment() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .fixedPointWidths(true)
+                .build();
+
+            Component root = Component.text("Test" + SpaceFont.space(0.3));
+            Component result = Calinea.layout(root)
+                .layoutContext(context)
+                .width(101)
+                .align(Alignment.CENTER)
+                .fillLines(true)
+                .build();
+
+            assertEquals(101.0, context.componentMeasurer().measure(result), "Filled line should be exactly the target width");
+        }
+
+        @Test
+        void testLinesAreSummedInUnits() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .fixedPointWidths(true)
+                .build();
+
+            String text = SpaceFont.spaceUnits(1).repeat(7) + "Hello";
+            ComponentLine line = context.splitter().split(Component.text(text), 200).lines().get(0);
+            long expected = context.componentMeasurer().measureTextUnits(text, Style.empty());
+            assertEquals(expected, line.units());
+            assertEquals(expected, context.componentMeasurer().measureUnits(Component.text(text), false));
+        }
+
+        @Test
+        void testCenterRoundsLeftSpacingDown() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .fixedPointWidths(true)
+                .build();
+
+            String text = "Test" + SpaceFont.spaceUnits(1);
+            long lineUnits = context.componentMeasurer().measureTextUnits(text, Style.empty());
+            long contentUnits = 100L * FixedWidth.UNITS_PER_PIXEL;
+            assertEquals(1, (contentUnits - lineUnits) % 2, "The spacing should have an odd number of units");
+
+            Component result = Calinea.layout(Component.text(text))
+                .layoutContext(context)
+                .width(100)
+                .align(Alignment.CENTER)
+                .fillLines(true)
+                .build();
+
+            assertEquals((contentUnits - lineUnits) / 2, context.componentMeasurer().measureUnits(result.children().getFirst(), false),
+                "The odd unit should not go to the left spacing");
+            assertEquals(contentUnits, context.componentMeasurer().measureUnits(result, false), "Filled line should keep the exact width");
+        }
+
+        @Test
+        void testUnitsCache() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .fixedPointWidths(true)
+                .widthCacheSize(16)
+                .build();
+
+            long first = context.componentMeasurer().measureUnits(Component.text("Hello"), false);
+            long second = context.componentMeasurer().measureUnits(Component.text("Hello"), false);
+
+            assertEquals(first, second);
+            assertNull(context.widthCache(), "Fixed-point mode should not cache doubles");
+            assertEquals(1, context.unitsCache().misses(), "First measure should miss");
+            assertEquals(1, context.unitsCache().hits(), "Second measure should hit");
+        }
+
+        @Test
+        void testTranslatableIsSummedInUnits() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .fixedPointWidths(true)
+                .build();
+
+            List<String> arguments = List.of("Alex", "Steve" + SpaceFont.spaceUnits(1));
+            TranslatableComponent component = Component.translatable("test.units", "<%s> %s",
+                Component.text(arguments.get(0)), Component.text(arguments.get(1)));
+            TranslationPattern pattern = TranslatableComponentUtils.extractEnglishPattern(component);
+            long expected = context.componentMeasurer().measureTextUnits(pattern.literalText(), Style.empty());
+            for (int i = 0; i < pattern.placeholderCount(); i++) {
+                expected += context.componentMeasurer().measureTextUnits(arguments.get(pattern.argumentIndex(i)), Style.empty());
+            }
+            assertEquals(expected, context.componentMeasurer().measureUnits(component, false), "Literal and arguments should be summed in units");
+        }
+    }
+
+    @Nested
+    class WidthCache {
+        @Test
+        void testCachedMeasure() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .widthCacheSize(16)
+                .build();
+
+            double uncached = Calinea.measure(Component.text("Hello"));
+            double first = context.componentMeasurer().measure(Component.text("Hello"));
+            double second = context.componentMeasurer().measure(Component.text("Hello"));
+
+            assertEquals(uncached, first, DELTA, "Cached width should match the measured width");
+            assertEquals(first, second, DELTA, "Cached width should be stable");
+            assertEquals(1, context.widthCache().misses(), "First measure should miss");
+            assertEquals(1, context.widthCache().hits(), "Second measure should hit");
+        }
+
+        @Test
+        void testFrequencyEviction() {
+            FrequencyCache<String, Integer> cache = new FrequencyCache<>(10);
+            cache.put("hot", 0);
+            for (int i = 0; i < 100; i++) {
+                cache.getIfPresent("hot");
+                cache.put("cold" + i, i);
+            }
+
+            assertTrue(cache.size() <= 10, "Cache should stay bounded");
+            assertEquals(0, cache.getIfPresent("hot"), "Frequently used entry should survive the evictions");
+            assertTrue(cache.evictions() >= 90, "Cold entries should be evicted");
+        }
+
+        @Test
+        void testConcurrentInsertionsStayBounded() throws Exception {
+            FrequencyCache<Integer, Integer> cache = new FrequencyCache<>(100);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<CompletableFuture<Void>> writers = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    int offset = t * 100_000;
+                    writers.add(CompletableFuture.runAsync(() -> {
+                        for (int i = 0; i < 20_000; i++) {
+                            cache.put(offset + i, i);
+                        }
+                    }, executor));
+                }
+                for (CompletableFuture<Void> writer : writers) {
+                    writer.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertTrue(cache.size() <= 100, "Cache should be bounded once the insertions are done: " + cache.size());
+            assertEquals(80_000 - cache.size(), cache.evictions());
+        }
+
+        @Test
+        void testCachedTranslationLiteralWidth() {
+            PackInfo packInfo = Calinea.defaultLayoutContext().packInfo();
+            FrequencyCache<TranslationWidthKey, Double> translationWidthCache = new FrequencyCache<>(16);
+            ComponentMeasurer measurer = new ComponentMeasurer(new ComponentMeasurerConfig.Builder(packInfo)
+                .translationWidthCache(translationWidthCache)
+                .build());
+
+            Component message = Component.translatable("test.cached.key", Component.text("Steve"));
+            double first = measurer.measure(message);
+            double second = measurer.measure(message);
+
+            assertEquals(Calinea.measure(message), first, DELTA, "Cached literal width should match the measured width");
+            assertEquals(first, second, DELTA, "Cached literal width should be stable");
+            assertEquals(1, translationWidthCache.misses(), "First measure should miss");
+            assertEquals(1, translationWidthCache.hits(), "Second measure should hit");
+        }
+
+        @Test
+        void testMemoizedReusedTree() {
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .widthMemo(true)
+                .build();
+            IComponentMeasurer measurer = context.componentMeasurer();
+            ComponentWidthMemo memo = context.widthMemo();
+            assertNotNull(memo);
+
+            // A constant header reused in every line
+            Component header = Component.text("[Shop]", NamedTextColor.GOLD).append(Component.text(" > "));
+            List<Component> lines = List.of(
+                Component.text().append(header, Component.text("Steve")).build(),
+                Component.text().append(header, Component.text("Alex")).build(),
+                Component.text().append(header, Component.text("Notch")).build());
+
+            for (Component line : lines) {
+                assertEquals(Calinea.measure(line), measurer.measure(line), DELTA, "Memoized header width should match the measured width");
+            }
+            assertEquals(1, memo.size(), "Only the reused header should be memoized, once measured twice");
+            assertEquals(1, memo.hits(), "Reused header should then be taken from the memo");
+
+            // Bold changes the width of the same tree
+            Component boldLine = Component.text().decorate(TextDecoration.BOLD).append(header).build();
+            assertEquals(Calinea.measure(boldLine), measurer.measure(boldLine), DELTA, "Bold should not reuse the plain width");
+        }
+
+        @Test
+        void testWidthMemoIsDroppedOnReload() {
+            Calinea.config().widthMemo(true);
+            try {
+                Calinea.reloadPackInfo();
+                ComponentWidthMemo memo = Calinea.defaultLayoutContext().widthMemo();
+                assertNotNull(memo);
+                Component header = Component.text("Header").append(Component.text("!"));
+                Calinea.measure(header);
+                Calinea.measure(header);
+                assertEquals(1, memo.size());
+
+                Calinea.reloadPackInfo();
+                ComponentWidthMemo reloadedMemo = Calinea.defaultLayoutContext().widthMemo();
+                assertNotNull(reloadedMemo);
+                assertNotSame(memo, reloadedMemo);
+                assertEquals(0, reloadedMemo.size(), "Widths measured with the previous pack should be dropped");
+            } finally {
+                Calinea.config().widthMemo(false);
+                Calinea.reloadPackInfo();
+            }
+        }
+    }
+
     @Nested
     class Split {
         @Test
@@ -256,6 +742,70 @@ class CalineaTest {
         }
     }
 
+    @Nested
+    class Traversal {
+        @Test
+        void testWalkOrderAndState() {
+            Component tree = Component.text("root").append(
+                Component.text("a").append(Component.text("a1")),
+                Component.text("b"));
+
+            List<String> events = new ArrayList<>();
+            ComponentTraversal.walk(tree, new IComponentVisitor<Integer>() {
+                @Override
+                public Integer enter(Component component, Integer depth) {
+                    events.add("enter " + ((TextComponent) component).content() + " " + depth);
+                    return depth + 1;
+                }
+
+                @Override
+                public void exit(Component component, Integer depth) {
+                    events.add("exit " + ((TextComponent) component).content());
+                }
+            }, 0);
+
+            assertEquals(List.of("enter root 0", "enter a 1", "enter a1 2", "exit a1", "exit a", "enter b 1", "exit b", "exit root"), events);
+        }
+
+        @Test
+        void testDeepTreeOnSmallStack() throws InterruptedException {
+            // An append chain much deeper than a small thread stack allows with one call per level
+            int depth = 20_000;
+            Component deep = Component.keybind("key.forward");
+            for (int i = 0; i < depth; i++) {
+                deep = Component.text("a").append(deep);
+            }
+            Component tree = deep;
+            double letterWidth = Calinea.measure(Component.text("a"));
+
+            AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+            Thread thread = new Thread(null, () -> {
+                try {
+                    ForcedClientComponentResolver resolver = new ForcedClientComponentResolver(Calinea.defaultLayoutContext().packInfo());
+                    Component resolved = resolver.resolve(tree, Locale.FRANCE);
+                    Component bottom = resolved;
+                    while (!bottom.children().isEmpty()) {
+                        bottom = bottom.children().get(0);
+                    }
+                    assertEquals("Avancer", PlainTextComponentSerializer.plainText().serialize(bottom));
+
+                    double width = Calinea.measure(resolved);
+                    assertEquals(depth * letterWidth + Calinea.measure(Component.text("Avancer")), width, DELTA);
+                    assertFalse(Calinea.split(resolved, 200).lines().isEmpty());
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }, "calinea-small-stack", 128 * 1024);
+            thread.start();
+            thread.join();
+
+            Throwable thrown = failure.get();
+            if (thrown != null) {
+                fail("Deep tree traversal failed: " + thrown, thrown);
+            }
+        }
+    }
+
     @Nested
     class Context {
         @Test
@@ -311,6 +861,487 @@ class CalineaTest {
             Calinea.logger().info("Third line: " + children.get(4).toString());
             assertEquals(15, thirdLineWidth, DELTA, "Third line width should be 15");
         }
+
+        @Test
+        void testCustomClientResolver() {
+            PackInfo packInfo = Calinea.defaultLayoutContext().packInfo();
+            LayoutContext custom = Calinea.createContext(packInfo)
+                .clientResolver(new IClientComponentResolver<KeybindComponent>() {
+                    @Override
+                    public Component resolve(KeybindComponent component, Locale locale) {
+                        return Component.text("[" + component.keybind() + "]");
+                    }
+
+                    @Override
+                    public boolean canResolve(Component component) {
+                        return component instanceof KeybindComponent;
+                    }
+                })
+                .build();
+            LayoutContext standard = Calinea.createContext(packInfo).build();
+
+            Component keybind = Component.keybind("key.forward");
+            Component customResult = ((ComponentResolver) custom.componentResolver()).forcedClientResolver().resolve(keybind, Locale.FRANCE);
+            Component standardResult = ((ComponentResolver) standard.componentResolver()).forcedClientResolver().resolve(keybind, Locale.FRANCE);
+
+            // Registered resolvers run first, and each context keeps its own chain
+            assertEquals("[key.forward]", PlainTextComponentSerializer.plainText().serialize(customResult));
+            assertEquals("Avancer", PlainTextComponentSerializer.plainText().serialize(standardResult));
+        }
+
+        @Test
+        void testUnchangedSubtreesAreShared() {
+            ForcedClientComponentResolver resolver = new ForcedClientComponentResolver(Calinea.defaultLayoutContext().packInfo());
+
+            Component plainLine = Component.text("Lore line").append(Component.text(" more", NamedTextColor.GRAY));
+            Component plain = Component.text().append(plainLine, Component.text("Other line")).build();
+            assertSame(plain, resolver.resolve(plain, Locale.US), "A tree without client-side components should be returned as is");
+
+            Component mixed = Component.text().append(plainLine, Component.keybind("key.forward")).build();
+            Component resolved = resolver.resolve(mixed, Locale.FRANCE);
+            assertNotSame(mixed, resolved);
+            assertSame(plainLine, resolved.children().get(0), "Unchanged siblings should be shared");
+            assertEquals("Lore line moreAvancer", PlainTextComponentSerializer.plainText().serialize(resolved));
+        }
+
+        @Test
+        void testCustomLayoutHandler() {
+            // Scores measured as a fixed-width block instead of their default
+            LayoutContext context = Calinea.createContext(Calinea.defaultLayoutContext().packInfo())
+                .layoutHandler(new IComponentLayoutHandler<ScoreComponent>() {
+                    @Override
+                    public double measureRoot(ScoreComponent component) {
+                        return 42;
+                    }
+
+                    @Override
+                    public boolean canHandle(Component component) {
+                        return component instanceof ScoreComponent;
+                    }
+
+                    @Override
+                    public boolean isAtomic() {
+                        return true;
+                    }
+
+                    @Override
+                    public @Nullable TextComponent asTextComponent(ScoreComponent component) {
+                        return null;
+                    }
+                })
+                .build();
+
+            Component score = Component.score("Steve", "kills");
+            Component text = Component.text("Hello");
+            for (int i = 0; i < 2; i++) { // the second time from the dispatch table
+                assertEquals(42, context.componentMeasurer().measure(score), DELTA);
+                assertEquals(Calinea.measure(text), context.componentMeasurer().measure(text), DELTA);
+                assertEquals(42 + Calinea.measure(text), context.componentMeasurer().measure(score.append(text)), DELTA,
+                    "Custom handlers should also measure nested components");
+            }
+            assertTrue(context.componentMeasurer().isAtomic(score));
+            assertFalse(context.componentMeasurer().isAtomic(text));
+        }
+    }
+
+    @Nested
+    class Reload {
+        @Test
+        void testAsyncReloadPublishesNewSnapshot() throws Exception {
+            Component text = Component.text("Hello World!");
+            LayoutContext previous = Calinea.defaultLayoutContext();
+            double previousWidth = previous.componentMeasurer().measure(text);
+
+            LayoutContext reloaded = Calinea.reloadPackInfoAsync().get(30, TimeUnit.SECONDS);
+
+            assertSame(reloaded, Calinea.defaultLayoutContext(), "The reloaded context should be published");
+            assertNotSame(previous, reloaded, "A reload should publish a new context instead of modifying the current one");
+            assertEquals(previousWidth, previous.componentMeasurer().measure(text), DELTA, "The previous context should keep working");
+            assertEquals(previousWidth, Calinea.measure(text), DELTA, "The same pack should give the same width");
+        }
+
+        @Test
+        void testConcurrentReloads() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<CompletableFuture<LayoutContext>> reloads = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    reloads.add(Calinea.reloadPackInfoAsync(executor));
+                }
+                Calinea.reloadPackInfo();
+
+                List<LayoutContext> contexts = new ArrayList<>();
+                for (CompletableFuture<LayoutContext> reload : reloads) {
+                    contexts.add(reload.get(30, TimeUnit.SECONDS));
+                }
+                assertEquals(8, contexts.stream().distinct().count(), "Each reload should publish its own context");
+
+                // The last context built is the one left published
+                LayoutContext last = Calinea.reloadPackInfoAsync(executor).get(30, TimeUnit.SECONDS);
+                assertSame(last, Calinea.defaultLayoutContext());
+                assertEquals(Calinea.measure(Component.text("Hello")), last.componentMeasurer().measure(Component.text("Hello")), DELTA);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        void testReloadReusesUnchangedFontsAndLanguages() {
+            LayoutContext previous = Calinea.defaultLayoutContext();
+            Key defaultFont = Key.key("minecraft:default");
+            FontFace previousFace = previous.packInfo().fontsInfo().getFace(defaultFont, true);
+            TranslationsInfo previousTranslations = previous.packInfo().translationsInfo();
+            String key = previousTranslations.getTranslation("en_us").translations().keySet().iterator().next();
+            TranslationPattern previousPattern = previousTranslations.getPattern("en_us", previousTranslations.keys().idOf(key));
+            assertNotNull(previousPattern);
+
+            Calinea.reloadPackInfo();
+            PackInfo reloaded = Calinea.defaultLayoutContext().packInfo();
+
+            assertSame(previousFace, reloaded.fontsInfo().getFace(defaultFont, true), "Faces of unchanged fonts should be reused");
+            // Each pack has its own key ids, an unchanged language is copied with its compiled patterns
+            TranslationsInfo translations = reloaded.translationsInfo();
+            assertNotSame(previousTranslations.keys(), translations.keys());
+            assertSame(previousPattern, translations.getPattern("en_us", translations.keys().idOf(key)),
+                "Unchanged languages should be reused");
+        }
+
+        @Test
+        void testReuseOnlyUnchangedFonts() {
+            FontInfo base = new FontInfo(Key.key("test:base"));
+            base.setWidth('a', 5);
+            FontInfo derived = new FontInfo(Key.key("test:derived"));
+            derived.addReference(base.getFontKey());
+            FontInfo other = new FontInfo(Key.key("test:other"));
+            other.setWidth('a', 7);
+            PackInfo previous = new PackInfo(new FontsInfo(List.of(base, derived, other)), new TranslationsInfo());
+            previous.fontsInfo().compile();
+
+            // Same fonts, except the base width
+            FontInfo newBase = new FontInfo(Key.key("test:base"));
+            newBase.setWidth('a', 6);
+            FontInfo newDerived = new FontInfo(Key.key("test:derived"));
+            newDerived.addReference(base.getFontKey());
+            FontInfo newOther = new FontInfo(Key.key("test:other"));
+            newOther.setWidth('a', 7);
+            PackInfo reloaded = new PackInfo(new FontsInfo(List.of(newBase, newDerived, newOther)), new TranslationsInfo())
+                .reuseUnchanged(previous);
+            FontsInfo fonts = reloaded.fontsInfo();
+
+            assertSame(newBase, fonts.getFont(newBase.getFontKey()), "A changed font should be replaced");
+            assertSame(derived, fonts.getFont(derived.getFontKey()), "An unchanged font should be reused");
+            assertSame(other, fonts.getFont(other.getFontKey()), "An unchanged font should be reused");
+
+            FontsInfo previousFonts = previous.fontsInfo();
+            assertSame(previousFonts.getFace(other.getFontKey(), false), fonts.getFace(other.getFontKey(), false), "Independent faces should be reused");
+            assertNotSame(previousFonts.getFace(derived.getFontKey(), false), fonts.getFace(derived.getFontKey(), false),
+                "A font referencing a changed font should be recompiled");
+            assertEquals(6, fonts.getWidth(derived.getFontKey(), 'a'), DELTA);
+            assertFalse(fonts.hasFace(previousFonts.getFace(base.getFontKey(), false)));
+        }
+
+        @Test
+        void testRenumberedFontsAreReused() {
+            FontInfo removed = new FontInfo(Key.key("test:removed"));
+            removed.setWidth('a', 3);
+            FontInfo kept = new FontInfo(Key.key("test:kept"));
+            kept.setWidth('a', 5);
+            FontsInfo previous = new FontsInfo(List.of(removed, kept));
+            previous.compile();
+
+            // A font removed before it shifts the id, and the font is read again as another instance
+            FontInfo keptAgain = new FontInfo(Key.key("test:kept"));
+            keptAgain.setWidth('a', 5);
+            FontsInfo fonts = new FontsInfo(List.of(keptAgain));
+            fonts.compile(previous);
+
+            ResolvedFont previousFont = previous.getResolvedFont(kept.getFontKey());
+            ResolvedFont font = fonts.getResolvedFont(kept.getFontKey());
+            assertEquals(1, previousFont.getId());
+            assertEquals(0, font.getId(), "The reused font should get its new id");
+            assertSame(font, fonts.getResolvedFont(0));
+            assertEquals(0, fonts.getFace(kept.getFontKey(), true).getFontId());
+            assertEquals(6, fonts.getFace(kept.getFontKey(), true).getWidth('a'), DELTA);
+        }
+
+        @Test
+        void testFileWatcherDebouncesWrites(@TempDir Path tempDir) throws Exception {
+            Path file = tempDir.resolve(CalineaGeneratorDefault.DEFAULT_OUTPUT_FILENAME);
+            AtomicInteger changes = new AtomicInteger();
+
+            try (PackFileWatcher watcher = new PackFileWatcher(file, 300, changes::incrementAndGet)) {
+                // A burst of writes, like a file being copied in several chunks
+                for (int i = 0; i < 5; i++) {
+                    Files.writeString(file, "{ \"part\": " + i + " }");
+                    Thread.sleep(20);
+                }
+                Files.writeString(tempDir.resolve("unrelated.txt"), "ignored");
+
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (changes.get() == 0 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(50);
+                }
+                Thread.sleep(500);
+            }
+
+            assertEquals(1, changes.get(), "A burst of writes should trigger a single change");
+        }
+
+        @Test
+        void testWatcherStopsWhenDirectoryIsDeleted(@TempDir Path tempDir) throws Exception {
+            Path directory = Files.createDirectory(tempDir.resolve("pack"));
+            Path file = Files.writeString(directory.resolve("pack.json"), "{}");
+
+            try (PackFileWatcher watcher = new PackFileWatcher(file, 50, () -> {})) {
+                Files.delete(file);
+                Files.delete(directory);
+
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (watcher.isWatching() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(50);
+                }
+                assertFalse(watcher.isWatching(), "The watcher should stop once its directory cannot be watched again");
+            }
+        }
+
+        @Test
+        void testWatchedConfigKeepsGoodDataOnCorruptedWrite(@TempDir Path tempDir) throws Exception {
+            Path source = Calinea.config().calineaConfigPath();
+            Path watched = tempDir.resolve(CalineaGeneratorDefault.DEFAULT_OUTPUT_FILENAME);
+            Files.copy(source, watched);
+
+            try {
+                Calinea.onLoad(new CalineaConfig()
+                    .calineaConfigPath(watched)
+                    .logger(Calinea.logger())
+                    .watchConfigFile(true)
+                    .watchDebounceMillis(100));
+                LayoutContext good = Calinea.defaultLayoutContext();
+
+                // A truncated write must not replace the current data
+                String content = Files.readString(source);
+                Files.writeString(watched, content.substring(0, content.length() / 2));
+                Thread.sleep(1500);
+                assertSame(good, Calinea.defaultLayoutContext(), "A corrupted config should be ignored");
+
+                // The complete file is then picked up
+                Files.writeString(watched, content);
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (Calinea.defaultLayoutContext() == good && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(50);
+                }
+                assertNotSame(good, Calinea.defaultLayoutContext(), "A valid config should be reloaded");
+            } finally {
+                CalineaTestHelper.setup();
+            }
+        }
+    }
+
+    @Nested
+    class LazyTranslations {
+        @Test
+        void testLanguagesAreLoadedOnFirstLookup() throws Exception {
+            Path configPath = Calinea.config().calineaConfigPath();
+            TranslationsInfo eager = new StreamingJsonPackReader().read(configPath).translationsInfo();
+            TranslationsInfo lazy = new StreamingJsonPackReader(true).read(configPath).translationsInfo();
+
+            assertEquals(eager.getLanguageNames(), lazy.getLanguageNames());
+            assertTrue(lazy.isLoaded("en_us"), "The fallback language should always be loaded");
+            assertFalse(lazy.isLoaded("fr_fr"), "Other languages should wait for their first lookup");
+
+            // Concurrent first lookups load the language once
+            List<CompletableFuture<TranslationInfo>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(CompletableFuture.supplyAsync(() -> lazy.getTranslation("fr_fr")));
+            }
+            TranslationInfo french = lookups.get(0).get(10, TimeUnit.SECONDS);
+            for (CompletableFuture<TranslationInfo> lookup : lookups) {
+                assertSame(french, lookup.get(10, TimeUnit.SECONDS));
+            }
+
+            assertTrue(lazy.isLoaded("fr_fr"));
+            assertEquals(eager.getTranslation("fr_fr").translations(), french.translations());
+        }
+
+        @Test
+        void testChangedFileIsNotLoaded(@TempDir Path tempDir) throws Exception {
+            Path configPath = tempDir.resolve(CalineaGeneratorDefault.DEFAULT_OUTPUT_FILENAME);
+            Files.copy(Calinea.config().calineaConfigPath(), configPath);
+            TranslationsInfo lazy = new StreamingJsonPackReader(true).read(configPath).translationsInfo();
+
+            Files.writeString(configPath, "\n", StandardOpenOption.APPEND);
+
+            TranslationInfo french = lazy.getTranslation("fr_fr");
+            assertNotNull(french);
+            assertTrue(french.isEmpty(), "A language of a changed file should not be read from the wrong offsets");
+        }
+    }
+
+    @Nested
+    class TranslationStorage {
+        @Test
+        void testKeysAreSharedBetweenLanguages() {
+            TranslationInfo english = new TranslationInfo("en_us");
+            english.addTranslation("test.storage.greeting", "Hello");
+            english.addTranslation("test.storage.café", "Café");
+            TranslationInfo japanese = new TranslationInfo("ja_jp");
+            japanese.addTranslation("test.storage.greeting", "こんにちは");
+
+            TranslationsInfo translations = new TranslationsInfo().addTranslation(english).addTranslation(japanese);
+            assertSame(translations.keys(), english.keys());
+            assertSame(translations.keys(), japanese.keys());
+            int keyId = translations.keys().idOf("test.storage.greeting");
+            assertTrue(keyId >= 0);
+            assertEquals("test.storage.greeting", translations.keys().keyAt(keyId));
+
+            // Latin-1 and other values read back the same, by key or by id
+            assertEquals("Hello", translations.getTranslation("en_us", keyId));
+            assertEquals("こんにちは", translations.getTranslation("ja_jp", keyId));
+            assertEquals("Café", translations.getTranslation("en_us", "test.storage.café"));
+            assertNull(translations.getTranslation("ja_jp", "test.storage.café"));
+            assertNull(translations.getTranslation("ja_jp", "test.storage.unknown"));
+
+            // Overwriting a value does not add an entry
+            english.addTranslation("test.storage.greeting", "Hi");
+            assertEquals(2, english.size());
+            assertEquals("Hi", english.getTranslation("test.storage.greeting"));
+            assertEquals(List.of("test.storage.greeting", "test.storage.café"), List.copyOf(english.translations().keySet()));
+        }
+
+        @Test
+        void testManyKeys() {
+            TranslationInfo info = new TranslationInfo("en_us");
+            for (int i = 0; i < 1000; i++) {
+                info.addTranslation("test.storage.key" + i, "Value " + i);
+            }
+            info.trimToSize();
+            assertEquals(1000, info.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("Value " + i, info.getTranslation("test.storage.key" + i));
+            }
+            assertNull(info.getTranslation("test.storage.key1000"));
+        }
+
+        @Test
+        void testDictionaryIsOwnedByThePack() {
+            TranslationInfo previous = new TranslationInfo("en_us");
+            previous.addTranslation("test.storage.old", "Old");
+            previous.addTranslation("test.storage.kept", "Kept");
+            TranslationsInfo previousPack = new TranslationsInfo().addTranslation(previous);
+            TranslationPattern pattern = previous.getPattern(previousPack.keys().idOf("test.storage.kept"));
+
+            TranslationInfo read = new TranslationInfo("en_us");
+            read.addTranslation("test.storage.kept", "Kept");
+            TranslationsInfo pack = new TranslationsInfo().addTranslation(read);
+            assertNotSame(previousPack.keys(), pack.keys());
+            assertEquals(-1, pack.keys().idOf("test.storage.old"), "Keys of another pack should not leak into this one");
+
+            // A language reused from the previous pack is copied to the ids of the new one, compiled patterns included
+            TranslationsInfo merged = pack.mapLoaded(language -> previous);
+            int keyId = merged.keys().idOf("test.storage.kept");
+            assertEquals("Kept", merged.getTranslation("en_us", keyId));
+            assertSame(pattern, merged.getPattern("en_us", keyId));
+            assertEquals("Old", merged.getTranslation("en_us", "test.storage.old"));
+            assertEquals("Kept", previousPack.getTranslation("en_us", "test.storage.kept"), "The previous pack should be left unchanged");
+        }
+
+        @Test
+        void testMappedLanguage() {
+            byte[] data = "HelloBonjour %s".getBytes(StandardCharsets.UTF_8);
+            ByteBuffer ends = ByteBuffer.allocate(2 * Integer.BYTES).putInt(0, 5).putInt(4, data.length);
+            MappedStrings pool = new MappedStrings(ends, ByteBuffer.wrap(data), 2);
+
+            TranslationsInfo pack = new TranslationsInfo();
+            int greeting = pack.keys().intern("test.storage.greeting");
+            int pattern = pack.keys().intern("test.storage.pattern");
+            int[] poolIndices = new int[3];
+            poolIndices[greeting] = 0;
+            poolIndices[pattern] = 1;
+            poolIndices[2] = -1;
+            TranslationInfo mapped = new TranslationInfo("en_us", pack.keys(), pool, poolIndices);
+            pack.addTranslation(mapped);
+
+            assertEquals(2, mapped.size());
+            assertEquals("Hello", pack.getTranslation("en_us", greeting), "Value should be read from the pool");
+            assertEquals(1, pack.getPattern("en_us", pattern).placeholderCount());
+            assertNull(mapped.getTranslation(2));
+
+            // Copied to another dictionary, the language keeps reading the pool
+            TranslationInfo read = new TranslationInfo("en_us");
+            read.addTranslation("test.storage.other", "Other");
+            TranslationsInfo other = new TranslationsInfo().addTranslation(read);
+            TranslationInfo copy = other.mapLoaded(language -> mapped).getLanguages().get("en_us");
+            assertEquals("Hello", copy.getTranslation("test.storage.greeting"));
+
+            // A modification copies the values to the heap
+            mapped.addTranslation("test.storage.added", "Added");
+            data[0] = 'J';
+            assertEquals("Hello", mapped.getTranslation(greeting), "Values should be copied before a modification");
+            assertEquals("Added", mapped.getTranslation("test.storage.added"));
+            assertEquals(3, mapped.size());
+        }
+    }
+
+    @Nested
+    class TranslationPatterns {
+        @Test
+        void testCompile() {
+            TranslationPattern pattern = TranslationPattern.compile("%2$s gave %1$s 100%%");
+            assertEquals(2, pattern.placeholderCount());
+            assertEquals(1, pattern.argumentIndex(0));
+            assertEquals(0, pattern.argumentIndex(1));
+            assertEquals(List.of("", " gave ", " 100%"), List.of(pattern.literal(0), pattern.literal(1), pattern.literal(2)));
+            assertEquals(2, pattern.requiredArguments());
+            assertEquals(" gave  100%", pattern.literalText());
+
+            TranslationPattern sequential = TranslationPattern.compile("[%s] %s");
+            assertEquals(0, sequential.argumentIndex(0));
+            assertEquals(1, sequential.argumentIndex(1));
+
+            // Unsupported conversions and a lone % leave the whole translation literal, like the client
+            assertEquals(0, TranslationPattern.compile("%d items, %s").placeholderCount());
+            assertEquals("%d items, %s", TranslationPattern.compile("%d items, %s").literalText());
+            assertEquals(0, TranslationPattern.compile("50% off %s").placeholderCount());
+            assertEquals("50% off %s", TranslationPattern.compile("50% off %s").literalText());
+            assertEquals("50 % off: %s", TranslationPattern.compile("50 % off: %s").literalText());
+
+            // Built patterns are written back in the client format
+            assertEquals("%2$s gave %1$s 100%%", TranslationPattern.builder()
+                .argument(1).literal(" gave ").argument(0).literal(" 100%").build().pattern());
+        }
+
+        @Test
+        void testResolvePositionalArguments() {
+            TranslationInfo english = new TranslationInfo("en_us");
+            english.addTranslation("test.pattern.gave", "%2$s gave %1$s 100%%");
+            PackInfo packInfo = new PackInfo(new FontsInfo(), new TranslationsInfo().addTranslation(english));
+            TranslatableComponentResolver resolver = new TranslatableComponentResolver(packInfo);
+
+            Component resolved = resolver.resolve(
+                Component.translatable("test.pattern.gave", Component.text("Steve"), Component.text("Alex")), Locale.US);
+            assertEquals("Alex gave Steve 100%", PlainTextComponentSerializer.plainText().serialize(resolved));
+
+            // The pattern is compiled once and reused
+            int keyId = english.keys().idOf("test.pattern.gave");
+            assertSame(english.getPattern(keyId), english.getPattern(keyId));
+        }
+
+        @Test
+        void testEnglishPatternIsCachedByKeyAndFallback() {
+            FrequencyCache<EnglishPatternKey, TranslationPattern> cache = new FrequencyCache<>(16);
+            TranslatableComponent message = Component.translatable("test.english.cached", Component.text("Steve"));
+            TranslationPattern pattern = TranslatableComponentUtils.extractEnglishPattern(message, cache);
+
+            // Arguments, children and style do not change the extracted pattern
+            assertSame(pattern, TranslatableComponentUtils.extractEnglishPattern(
+                message.arguments(Component.text("Alex")).append(Component.text("!")).color(NamedTextColor.RED), cache));
+            assertNotSame(pattern, TranslatableComponentUtils.extractEnglishPattern(message.fallback("Fallback %s"), cache));
+
+            // Another cache (the one of a reloaded context) extracts it again
+            TranslationPattern extractedAgain = TranslatableComponentUtils.extractEnglishPattern(message, new FrequencyCache<>(16));
+            assertNotSame(pattern, extractedAgain);
+            assertEquals(pattern, extractedAgain);
+        }
     }
 
     @Nested